@@ -3,6 +3,7 @@ plugins {
     groovy
     alias(libs.plugins.spring.boot)
     alias(libs.plugins.spring.dependency.management)
+    alias(libs.plugins.jmh)
 }
 
 java {
@@ -30,6 +31,18 @@ sourceSets {
     }
 }
 
+// Microbenchmarks for the per-notification hot path (src/jmh/java).
+// Run all: ./gradlew :app:jmh   One class: ./gradlew :app:jmh -Pjmh.includes=ValidationBenchmark
+jmh {
+    jmhVersion = libs.versions.jmh.get()
+    // Allocation rate (gc.alloc.rate.norm = bytes per operation) next to the timings
+    profilers = listOf("gc")
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    resultFormat = "JSON"
+    (project.findProperty("jmh.includes") as String?)?.let { includes = listOf(it) }
+}
 
 tasks.withType<Test> {
     useJUnitPlatform()
@@ -0,0 +1,60 @@
+package scm.notification.benchmark;
+
+import scm.notification.storage.AttachmentCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attachment decoding at ingest. {@code regexSanitizeAndDecode} is the
+ * original implementation (replaceAll("\\s+", "") then decode to a byte[]);
+ * {@code streamingCodec} is AttachmentCodec feeding the attachment store.
+ * Payloads are MIME-style Base64 with line breaks every 76 characters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AttachmentDecodeBenchmark {
+
+    @Param({ "16384", "1048576" })
+    private int sizeBytes;
+
+    private String base64;
+
+    @Setup
+    public void setUp() {
+        byte[] payload = new byte[sizeBytes];
+        new Random(42).nextBytes(payload);
+        base64 = Base64.getMimeEncoder().encodeToString(payload);
+    }
+
+    @Benchmark
+    public byte[] regexSanitizeAndDecode() {
+        try {
+            String sanitized = base64.replaceAll("\\s+", "");
+            return Base64.getDecoder().decode(sanitized);
+        } catch (IllegalArgumentException e) {
+            return base64.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public long streamingCodec() throws IOException {
+        try (InputStream in = AttachmentCodec.open(base64)) {
+            return in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package scm.notification.benchmark;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MimeMessage assembly as done by EmailService.sendHtmlEmail: multipart HTML
+ * body plus attachments, then written out the way the SMTP transport would
+ * (to a null stream, so no network is involved).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MimeMessageBenchmark {
+
+    @Param({ "0", "65536" })
+    private int attachmentBytes;
+
+    private Session session;
+    private String html;
+    private ByteArrayResource attachment;
+
+    @Setup
+    public void setUp() {
+        session = Session.getInstance(new Properties());
+        html = "<html><body>" + "<p>Here is what happened this week.</p>".repeat(50) + "</body></html>";
+        byte[] payload = new byte[attachmentBytes];
+        new Random(42).nextBytes(payload);
+        attachment = new ByteArrayResource(payload);
+    }
+
+    @Benchmark
+    public MimeMessage assembleAndWrite() throws MessagingException, IOException {
+        MimeMessage message = new MimeMessage(session);
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom("noreply@example.com", "Notification Service");
+        helper.setTo("user@example.com");
+        helper.setSubject("Your weekly summary");
+        helper.setText(html, true);
+        if (attachmentBytes > 0) {
+            helper.addAttachment("report.pdf", attachment);
+        }
+        message.saveChanges();
+        message.writeTo(OutputStream.nullOutputStream());
+        return message;
+    }
+}
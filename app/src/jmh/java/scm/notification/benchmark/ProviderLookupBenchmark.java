@@ -0,0 +1,51 @@
+package scm.notification.benchmark;
+
+import scm.notification.enums.NotificationChannel;
+import scm.notification.provider.EmailNotificationProvider;
+import scm.notification.provider.NotificationProvider;
+import scm.notification.provider.NotificationProviderFactory;
+import scm.notification.provider.PushNotificationProvider;
+import scm.notification.provider.SmsNotificationProvider;
+import scm.notification.provider.WhatsAppNotificationProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NotificationProviderFactory.getProvider, called once per delivery. The
+ * factory streams over the provider list on every call, so later channels in
+ * the list cost more.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProviderLookupBenchmark {
+
+    @Param({ "EMAIL", "WHATSAPP" })
+    private NotificationChannel channel;
+
+    private NotificationProviderFactory factory;
+
+    @Setup
+    public void setUp() {
+        // Same order as Spring injects the provider beans (by class name)
+        factory = new NotificationProviderFactory(List.of(
+                new EmailNotificationProvider(null, null),
+                new PushNotificationProvider(),
+                new SmsNotificationProvider(),
+                new WhatsAppNotificationProvider()));
+    }
+
+    @Benchmark
+    public NotificationProvider getProvider() {
+        return factory.getProvider(channel);
+    }
+}
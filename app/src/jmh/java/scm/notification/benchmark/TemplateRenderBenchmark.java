@@ -0,0 +1,77 @@
+package scm.notification.benchmark;
+
+import scm.notification.constants.EmailConstants;
+import scm.notification.service.TemplateRenderCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.time.Year;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering of email/base-notification, configured like Spring Boot's
+ * auto-configured engine (SpEL, cached templates). {@code thymeleaf} is a full
+ * render per recipient; {@code renderCache} is the broadcast path where only
+ * the recipient differs between calls.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TemplateRenderBenchmark {
+
+    private SpringTemplateEngine templateEngine;
+    private TemplateRenderCache renderCache;
+    private Map<String, Object> variables;
+    private long recipientCounter;
+
+    @Setup
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        renderCache = new TemplateRenderCache(templateEngine, 1000, 600000);
+
+        variables = new HashMap<>();
+        variables.put("subject", "Your weekly summary");
+        variables.put("content", "<p>Here is what happened this week.</p>".repeat(20));
+        variables.put("companyName", EmailConstants.COMPANY_NAME);
+        variables.put("companyAddress", EmailConstants.COMPANY_ADDRESS);
+        variables.put("year", Year.now().getValue());
+    }
+
+    @Benchmark
+    public String thymeleaf() {
+        Context context = new Context();
+        context.setVariables(variables);
+        context.setVariable(EmailConstants.TEMPLATE_VAR_RECIPIENT, nextRecipient());
+        return templateEngine.process(EmailConstants.TEMPLATE_BASE_NOTIFICATION, context);
+    }
+
+    @Benchmark
+    public String renderCache() {
+        Map<String, Object> perRecipient = new HashMap<>(variables);
+        perRecipient.put(EmailConstants.TEMPLATE_VAR_RECIPIENT, nextRecipient());
+        return renderCache.render(EmailConstants.TEMPLATE_BASE_NOTIFICATION, perRecipient,
+                EmailConstants.TEMPLATE_VAR_RECIPIENT).html();
+    }
+
+    private String nextRecipient() {
+        return "user" + (recipientCounter++ & 1023) + "@example.com";
+    }
+}
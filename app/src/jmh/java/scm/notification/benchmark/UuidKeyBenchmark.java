@@ -0,0 +1,155 @@
+package scm.notification.benchmark;
+
+import scm.notification.entity.UuidV7Generator;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Primary key inserts with random (v4) vs. time-ordered (v7) UUIDs.
+ *
+ * {@code insert} adds keys to a model of an InnoDB clustered index: fixed
+ * size pages ordered by their BINARY(16) keys, split in half when a key lands
+ * in a full page, and a fresh page when a full last page receives a key past
+ * its end (InnoDB's sequential insert path). v4 keys hit random pages and
+ * split them, leaving pages about 70% full; v7 keys append to the last page.
+ * Next to the time per insert the aux counters report the page splits and
+ * the resulting index size in pages per 1000 rows.
+ *
+ * {@code generate} is the cost of the ID alone.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UuidKeyBenchmark {
+
+    // ~16 KB InnoDB page of notification rows
+    private static final int PAGE_CAPACITY = 64;
+
+    // Unsigned byte order of the BINARY(16) column; UUID.compareTo compares signed longs
+    private static final Comparator<UUID> BINARY_ORDER = (a, b) -> {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    };
+
+    public enum KeyType {
+        V4,
+        V7
+    }
+
+    @Param({ "V4", "V7" })
+    private KeyType keyType;
+
+    private ClusteredIndex index;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        index = new ClusteredIndex();
+    }
+
+    @Benchmark
+    public UUID generate() {
+        return nextKey();
+    }
+
+    @Benchmark
+    public int insert(IndexCounters counters) {
+        int pages = index.insert(nextKey());
+        counters.pageSplits = index.splits;
+        counters.pagesPer1000Rows = index.rows == 0 ? 0 : pages * 1000L / index.rows;
+        return pages;
+    }
+
+    private UUID nextKey() {
+        return keyType == KeyType.V7 ? UuidV7Generator.next() : UUID.randomUUID();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class IndexCounters {
+        public long pageSplits;
+        public long pagesPer1000Rows;
+    }
+
+    private static final class ClusteredIndex {
+
+        // Pages by the lowest key they may hold; the first page starts at the lowest possible key
+        private final TreeMap<UUID, Page> pages = new TreeMap<>(BINARY_ORDER);
+        private long splits;
+        private long rows;
+
+        ClusteredIndex() {
+            pages.put(new UUID(0, 0), new Page());
+        }
+
+        int insert(UUID key) {
+            Map.Entry<UUID, Page> entry = pages.floorEntry(key);
+            Page page = entry.getValue();
+            if (page.size == PAGE_CAPACITY) {
+                if (entry.getKey().equals(pages.lastKey()) && BINARY_ORDER.compare(key, page.last()) > 0) {
+                    page = new Page();
+                    pages.put(key, page);
+                } else {
+                    Page upper = page.splitUpperHalf();
+                    pages.put(upper.keys[0], upper);
+                    splits++;
+                    if (BINARY_ORDER.compare(key, upper.keys[0]) >= 0) {
+                        page = upper;
+                    }
+                }
+            }
+            page.add(key);
+            rows++;
+            return pages.size();
+        }
+    }
+
+    private static final class Page {
+        private final UUID[] keys = new UUID[PAGE_CAPACITY];
+        private int size;
+
+        UUID last() {
+            return keys[size - 1];
+        }
+
+        void add(UUID key) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (BINARY_ORDER.compare(keys[mid], key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            System.arraycopy(keys, low, keys, low + 1, size - low);
+            keys[low] = key;
+            size++;
+        }
+
+        Page splitUpperHalf() {
+            Page upper = new Page();
+            int half = size / 2;
+            upper.size = size - half;
+            System.arraycopy(keys, half, upper.keys, 0, upper.size);
+            Arrays.fill(keys, half, size, null);
+            size = half;
+            return upper;
+        }
+    }
+}
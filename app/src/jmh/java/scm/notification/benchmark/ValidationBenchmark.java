@@ -0,0 +1,72 @@
+package scm.notification.benchmark;
+
+import scm.notification.constants.EmailConstants;
+import scm.notification.dto.NotificationRequest;
+import scm.notification.enums.NotificationChannel;
+import scm.notification.service.EmailService;
+import scm.notification.validation.RecipientValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Recipient checks run for every notification: RecipientValidator at request
+ * validation, EmailService.isValidEmail again in the email provider.
+ * {@code precompiledEmailPattern} is the baseline for isValidEmail, which goes
+ * through String.matches and compiles EMAIL_REGEX on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidationBenchmark {
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(EmailConstants.EMAIL_REGEX);
+
+    private RecipientValidator recipientValidator;
+    private EmailService emailService;
+    private NotificationRequest emailRequest;
+    private NotificationRequest smsRequest;
+    private String email;
+
+    @Setup
+    public void setUp() {
+        recipientValidator = new RecipientValidator();
+        // isValidEmail does not touch any of the collaborators
+        emailService = new EmailService(null, null, null, null, null);
+
+        email = "first.last+alerts@mail.example.com";
+        emailRequest = new NotificationRequest();
+        emailRequest.setChannel(NotificationChannel.EMAIL);
+        emailRequest.setRecipient(email);
+        smsRequest = new NotificationRequest();
+        smsRequest.setChannel(NotificationChannel.SMS);
+        smsRequest.setRecipient("+14155550123");
+    }
+
+    @Benchmark
+    public boolean recipientValidatorEmail() {
+        return recipientValidator.isValid(emailRequest, null);
+    }
+
+    @Benchmark
+    public boolean recipientValidatorSms() {
+        return recipientValidator.isValid(smsRequest, null);
+    }
+
+    @Benchmark
+    public boolean emailServiceIsValidEmail() {
+        return emailService.isValidEmail(email);
+    }
+
+    @Benchmark
+    public boolean precompiledEmailPattern() {
+        return EMAIL_PATTERN.matcher(email).matches();
+    }
+}
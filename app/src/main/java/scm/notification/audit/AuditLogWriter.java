@@ -0,0 +1,231 @@
+package scm.notification.audit;
+
+import scm.notification.entity.NotificationAuditLog;
+import scm.notification.repository.NotificationAuditLogRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind sink for notification audit rows.
+ *
+ * In ASYNC mode entries go into a bounded lock-free ring buffer and a single
+ * writer thread flushes them to notification_audit_logs as batched INSERTs
+ * whenever batch-size entries are waiting or flush-interval-ms has passed.
+ * When the buffer is full, or the writer is not running, entries are written
+ * synchronously so audit rows are never dropped for lack of space. Entries
+ * recorded inside a transaction are only buffered once it commits, so a rolled
+ * back insert leaves no audit rows behind. SYNC mode inserts in the caller's
+ * transaction, as before. The buffer is drained on shutdown.
+ */
+@Component
+@Slf4j
+public class AuditLogWriter implements SmartLifecycle {
+
+    public enum Mode {
+        SYNC,
+        ASYNC
+    }
+
+    private static final int MAX_FLUSH_ATTEMPTS = 3;
+
+    private final NotificationAuditLogRepository auditLogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate overflowTransaction;
+    private final Mode mode;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final BoundedRingBuffer<NotificationAuditLog> buffer;
+
+    private volatile boolean running;
+    private volatile Thread writer;
+
+    public AuditLogWriter(NotificationAuditLogRepository auditLogRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${notification.audit.mode:ASYNC}") Mode mode,
+            @Value("${notification.audit.buffer-size:8192}") int bufferSize,
+            @Value("${notification.audit.batch-size:500}") int batchSize,
+            @Value("${notification.audit.flush-interval-ms:200}") long flushIntervalMs) {
+        this.auditLogRepository = auditLogRepository;
+        this.transactionTemplate = transactionTemplate;
+        // Overflow is written after the caller's commit, when its transaction can no longer be joined
+        this.overflowTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.overflowTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.mode = mode;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.buffer = new BoundedRingBuffer<>(bufferSize);
+    }
+
+    public void record(UUID notificationId, String status, String details) {
+        record(NotificationAuditLog.builder()
+                .notificationId(notificationId)
+                .status(status)
+                .details(details)
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    @SuppressWarnings("null")
+    public void record(NotificationAuditLog entry) {
+        if (entry.getTimestamp() == null) {
+            // Stamp at event time, not at flush time
+            entry.setTimestamp(LocalDateTime.now());
+        }
+        if (mode == Mode.SYNC) {
+            auditLogRepository.save(entry);
+            return;
+        }
+        afterCommit(() -> enqueue(List.of(entry)));
+    }
+
+    @SuppressWarnings("null")
+    public void recordAll(List<NotificationAuditLog> entries) {
+        LocalDateTime now = LocalDateTime.now();
+        entries.forEach(entry -> {
+            if (entry.getTimestamp() == null) {
+                entry.setTimestamp(now);
+            }
+        });
+        if (mode == Mode.SYNC) {
+            auditLogRepository.saveAll(entries);
+            return;
+        }
+        afterCommit(() -> enqueue(entries));
+    }
+
+    public int pending() {
+        return buffer.size();
+    }
+
+    @SuppressWarnings("null")
+    private void enqueue(List<NotificationAuditLog> entries) {
+        List<NotificationAuditLog> overflow = new ArrayList<>();
+        for (NotificationAuditLog entry : entries) {
+            if (!running || !buffer.offer(entry)) {
+                overflow.add(entry);
+            }
+        }
+        if (!overflow.isEmpty()) {
+            overflowTransaction.executeWithoutResult(status -> auditLogRepository.saveAll(overflow));
+        }
+        if (buffer.size() >= batchSize) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @Override
+    public void start() {
+        if (mode != Mode.ASYNC || running) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("audit-writer").daemon(true).start(this::writeLoop);
+        log.info("Audit writer started (buffer {}, batch {})", buffer.capacity(), batchSize);
+    }
+
+    @Override
+    public void stop() {
+        Thread current = writer;
+        running = false;
+        if (current == null) {
+            return;
+        }
+        LockSupport.unpark(current);
+        try {
+            current.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Anything offered while the writer was shutting down
+        flushRemaining();
+        log.info("Audit writer stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void writeLoop() {
+        List<NotificationAuditLog> batch = new ArrayList<>(batchSize);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (running) {
+            NotificationAuditLog entry;
+            while (batch.size() < batchSize && (entry = buffer.poll()) != null) {
+                batch.add(entry);
+            }
+
+            long now = System.nanoTime();
+            if (batch.size() >= batchSize || (!batch.isEmpty() && now - deadline >= 0)) {
+                flush(batch);
+                batch.clear();
+                deadline = System.nanoTime() + flushIntervalNanos;
+            } else if (batch.isEmpty() && now - deadline >= 0) {
+                deadline = now + flushIntervalNanos;
+            } else {
+                LockSupport.parkNanos(this, Math.max(0, deadline - now));
+            }
+        }
+        flush(batch);
+    }
+
+    private void flushRemaining() {
+        List<NotificationAuditLog> batch = new ArrayList<>(batchSize);
+        NotificationAuditLog entry;
+        while ((entry = buffer.poll()) != null) {
+            batch.add(entry);
+            if (batch.size() == batchSize) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+        flush(batch);
+    }
+
+    @SuppressWarnings("null")
+    private void flush(List<NotificationAuditLog> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (int attempt = 1; attempt <= MAX_FLUSH_ATTEMPTS; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> auditLogRepository.saveAll(batch));
+                return;
+            } catch (RuntimeException e) {
+                // Clear IDs assigned by the rolled-back batch so the retry generates fresh ones
+                batch.forEach(entry -> entry.setId(null));
+                log.warn("Audit flush of {} entries failed (attempt {}/{}): {}", batch.size(), attempt,
+                        MAX_FLUSH_ATTEMPTS, e.getMessage());
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100L * attempt));
+            }
+        }
+        log.error("Dropping {} audit entries after {} failed flushes: {}", batch.size(), MAX_FLUSH_ATTEMPTS,
+                batch.stream().map(e -> e.getNotificationId() + "/" + e.getStatus()).toList());
+    }
+}
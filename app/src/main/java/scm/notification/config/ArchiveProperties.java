@@ -0,0 +1,44 @@
+package scm.notification.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Archival of finished notifications bound from {@code notification.archive.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.archive")
+public class ArchiveProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * SENT and FAILED notifications (with their attachments and audit rows) are
+     * moved to the archive tables this long after their last update.
+     */
+    private Duration retention = Duration.ofDays(30);
+
+    /**
+     * Archived notifications are deleted this long after their last update.
+     */
+    private Duration purgeAfter = Duration.ofDays(365);
+
+    /**
+     * Notifications moved or purged per transaction.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Pause between batches, so archival does not compete with the send path
+     * for I/O and row locks.
+     */
+    private Duration batchPause = Duration.ofMillis(200);
+
+    /**
+     * Time budget of one archival run; the rest of a large backlog is left to
+     * the next run.
+     */
+    private Duration maxRunTime = Duration.ofMinutes(10);
+}
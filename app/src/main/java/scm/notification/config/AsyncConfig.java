@@ -1,62 +1,43 @@
 package scm.notification.config;
 
+import scm.notification.service.DeliveryLanes;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
-
-import java.util.concurrent.Executor;
 
 /**
  * Production-grade async and scheduling configuration.
- * Configures thread pool for notification processing with proper sizing and
- * naming.
+ * Configures one thread pool per priority lane for notification processing
+ * with proper sizing and naming.
  */
 @Configuration
-@EnableAsync
 @EnableScheduling
+@EnableConfigurationProperties({ DeliveryProperties.class, RateLimitProperties.class, ArchiveProperties.class })
+@Slf4j
 public class AsyncConfig {
 
     /**
-     * Configures the thread pool executor for async notification processing.
+     * Configures the delivery lanes used for async notification processing.
      * 
-     * Pool sizing strategy:
-     * - Core pool: 5 threads (handles typical load)
-     * - Max pool: 20 threads (handles burst traffic)
-     * - Queue capacity: 100 (buffers requests during peaks)
-     * - Keep alive: 60 seconds (releases idle threads)
+     * Each priority (CRITICAL, HIGH, NORMAL, BULK) gets its own fixed-size
+     * pool and bounded queue, sized under notification.delivery.lanes, so
+     * capacity reserved for higher priorities cannot be consumed by bulk
+     * traffic. Idle workers time out after 60 seconds, and in-flight
+     * deliveries are given 30 seconds to finish on shutdown.
+     *
+     * When notification.delivery.virtual-threads is enabled, each delivery runs
+     * on its own virtual thread instead: a lane holds at most concurrency +
+     * queue-capacity deliveries (semaphore), blocking I/O does not tie up a
+     * fixed pool, and provider calls are bounded per channel by ChannelGuard.
      */
-    @Bean(name = "notificationExecutor")
-    public Executor notificationExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-
-        // Core pool size - minimum threads to keep alive
-        executor.setCorePoolSize(5);
-
-        // Maximum pool size - upper limit for thread creation
-        executor.setMaxPoolSize(20);
-
-        // Queue capacity before rejecting new tasks
-        executor.setQueueCapacity(100);
-
-        // Thread name prefix for easy identification in logs/monitoring
-        executor.setThreadNamePrefix("notification-async-");
-
-        // Keep alive time for idle threads (in seconds)
-        executor.setKeepAliveSeconds(60);
-
-        // Allow core threads to time out
-        executor.setAllowCoreThreadTimeOut(true);
-
-        // Wait for tasks to complete on shutdown
-        executor.setWaitForTasksToCompleteOnShutdown(true);
-
-        // Timeout for waiting on shutdown
-        executor.setAwaitTerminationSeconds(30);
-
-        executor.initialize();
-
-        return executor;
+    @Bean
+    public DeliveryLanes deliveryLanes(DeliveryProperties deliveryProperties, MeterRegistry meterRegistry) {
+        if (deliveryProperties.isVirtualThreads()) {
+            log.info("Notification deliveries run on virtual threads");
+        }
+        return new DeliveryLanes(deliveryProperties, meterRegistry);
     }
 }
@@ -0,0 +1,162 @@
+package scm.notification.config;
+
+import scm.notification.enums.NotificationChannel;
+import scm.notification.enums.NotificationPriority;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Delivery execution settings bound from {@code notification.delivery.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.delivery")
+public class DeliveryProperties {
+
+    /**
+     * Run deliveries on Java 21 virtual threads instead of the bounded platform
+     * thread pools. Each lane then starts a virtual thread per delivery and
+     * holds at most concurrency + queue-capacity deliveries; provider calls are
+     * bounded by the per-channel limits.
+     */
+    private boolean virtualThreads = false;
+
+    /**
+     * Maximum number of concurrent provider calls per channel.
+     */
+    private Map<NotificationChannel, Integer> channelConcurrency = new EnumMap<>(NotificationChannel.class);
+
+    /**
+     * Limit used for channels without an explicit entry in channelConcurrency.
+     */
+    private int defaultChannelConcurrency = 20;
+
+    /**
+     * How far a delivery that found its channel at the concurrency limit is
+     * pushed back. Deliveries never wait for a slot.
+     */
+    private Duration deferralDelay = Duration.ofSeconds(5);
+
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    private AdaptiveLimit adaptiveLimit = new AdaptiveLimit();
+
+    private FanOut fanOut = new FanOut();
+
+    /**
+     * One dispatch lane per priority, each with its own workers and queue so
+     * bulk traffic can never occupy the capacity reserved for higher priorities.
+     */
+    private Map<NotificationPriority, Lane> lanes = new EnumMap<>(NotificationPriority.class);
+
+    public int concurrencyFor(NotificationChannel channel) {
+        return channelConcurrency.getOrDefault(channel, defaultChannelConcurrency);
+    }
+
+    public Lane laneFor(NotificationPriority priority) {
+        return lanes.getOrDefault(priority, new Lane());
+    }
+
+    @Data
+    public static class Lane {
+
+        /**
+         * Deliveries of this priority that may run at the same time.
+         */
+        private int concurrency = 5;
+
+        /**
+         * Deliveries waiting for a worker before the lane refuses more work.
+         */
+        private int queueCapacity = 100;
+
+        /**
+         * IN_PROGRESS rows of this priority untouched for this long are requeued
+         * by the lease recovery scan.
+         */
+        private Duration leaseTimeout = Duration.ofMinutes(10);
+
+        /**
+         * How long a new notification is left to the in-memory fast path before
+         * the dispatcher may claim it.
+         */
+        private Duration gracePeriod = Duration.ofSeconds(5);
+
+        /**
+         * Accept-to-sent latency objective; slower deliveries are logged.
+         * Unset means no objective.
+         */
+        private Duration latencyTarget;
+    }
+
+    @Data
+    public static class FanOut {
+
+        /**
+         * Send identical batch-triggered emails as one message with many RCPT TO
+         * recipients instead of one message per notification.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum recipients per message (SMTP envelope).
+         */
+        private int maxRecipients = 50;
+    }
+
+    @Data
+    public static class CircuitBreaker {
+
+        /**
+         * Number of most recent calls the failure rate is computed over.
+         */
+        private int slidingWindowSize = 20;
+
+        /**
+         * Calls required in the window before the breaker may open.
+         */
+        private int minimumCalls = 10;
+
+        /**
+         * Failure rate (0..1) at which the breaker opens.
+         */
+        private double failureRateThreshold = 0.5;
+
+        /**
+         * How long the breaker stays open before letting probe calls through.
+         */
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        /**
+         * Consecutive successful probe calls needed to close the breaker again.
+         */
+        private int halfOpenProbeCalls = 3;
+    }
+
+    @Data
+    public static class AdaptiveLimit {
+
+        /**
+         * When disabled the channel concurrency is a fixed limit.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Floor of the adaptive limit; the configured channel concurrency is its ceiling.
+         */
+        private int minLimit = 1;
+
+        /**
+         * Calls slower than this count as an overload signal.
+         */
+        private Duration latencyThreshold = Duration.ofSeconds(2);
+
+        /**
+         * Factor the limit is multiplied by on an overload signal.
+         */
+        private double backoffRatio = 0.7;
+    }
+}
@@ -0,0 +1,71 @@
+package scm.notification.config;
+
+import scm.notification.enums.NotificationChannel;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Send-rate limits bound from {@code notification.rate-limit.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.rate-limit")
+public class RateLimitProperties {
+
+    public enum Mode {
+        /** Each replica enforces the configured rates on its own. */
+        LOCAL,
+        /** Replicas share one budget per bucket through the rate_limit_buckets table. */
+        CLUSTER
+    }
+
+    private boolean enabled = true;
+
+    private Mode mode = Mode.LOCAL;
+
+    /**
+     * Bucket per channel, e.g. the SMTP relay's messages-per-second cap for EMAIL.
+     */
+    private Map<NotificationChannel, Bucket> channels = new EnumMap<>(NotificationChannel.class);
+
+    /**
+     * Bucket per recipient domain (e.g. gmail.com). Domains without an entry are
+     * only limited by their channel's bucket.
+     */
+    private Map<String, Bucket> domains = new LinkedHashMap<>();
+
+    /**
+     * Rate-limited deliveries are spread over this much time on top of the wait
+     * for the next token, so deferred rows do not all come back at once.
+     */
+    private Duration deferralJitter = Duration.ofSeconds(1);
+
+    /**
+     * CLUSTER mode: tokens taken from the shared bucket per database round trip.
+     */
+    private int clusterLeaseSize = 10;
+
+    /**
+     * CLUSTER mode: unused leased tokens are dropped after this long, so an idle
+     * replica cannot hoard budget and later exceed the shared rate.
+     */
+    private Duration clusterLeaseTtl = Duration.ofSeconds(1);
+
+    @Data
+    public static class Bucket {
+
+        /**
+         * Sustained rate in permits per second.
+         */
+        private double ratePerSecond;
+
+        /**
+         * Bucket capacity, i.e. the largest burst allowed after a quiet period.
+         */
+        private int burst = 1;
+    }
+}
@@ -63,6 +63,12 @@ public final class EmailConstants {
      */
     public static final String TEMPLATE_ALERT = "email/alert";
 
+    /**
+     * Template variable holding the recipient address (the only per-recipient
+     * value in the base notification template)
+     */
+    public static final String TEMPLATE_VAR_RECIPIENT = "recipientEmail";
+
     // ============================================
     // EMAIL CONFIGURATION
     // ============================================
@@ -0,0 +1,68 @@
+package scm.notification.controller;
+
+import scm.notification.dto.CampaignRequest;
+import scm.notification.dto.CampaignResponse;
+import scm.notification.service.CampaignService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * REST controller for campaigns: one message sent to a large uploaded list of
+ * recipients.
+ *
+ * API Version: v1
+ */
+@RestController
+@RequestMapping("/api/notification/campaigns")
+@RequiredArgsConstructor
+@Slf4j
+public class CampaignController {
+
+    private final CampaignService campaignService;
+
+    /**
+     * Creates a campaign from a multipart upload.
+     *
+     * The "campaign" part is the JSON message definition; the "recipients" part
+     * is a CSV file (recipient in the column headed recipient, email, phone or
+     * token, else the first column) or an NDJSON file (one object per line
+     * with a "recipient" field). The file is ingested as a stream, so there is
+     * no limit on the number of recipients beyond the upload size.
+     *
+     * @param request    The campaign's channel, subject and content
+     * @param recipients The recipient file
+     * @return Ingestion counters and final ingestion status
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<CampaignResponse> createCampaign(
+            @Valid @RequestPart("campaign") CampaignRequest request,
+            @RequestPart("recipients") MultipartFile recipients) {
+
+        log.info("Received campaign '{}' for channel: {} with recipient file {} ({} bytes)",
+                request.getName(), request.getChannel(), recipients.getOriginalFilename(), recipients.getSize());
+
+        CampaignResponse response = campaignService.createCampaign(request, recipients);
+
+        log.info("Campaign {} {}: {} accepted, {} rejected", response.getId(), response.getStatus(),
+                response.getAccepted(), response.getRejected());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Retrieves a campaign's ingestion progress and the delivery status counts
+     * of its notifications.
+     *
+     * @param id The UUID of the campaign
+     * @return Campaign progress
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<CampaignResponse> getCampaign(@PathVariable String id) {
+        return ResponseEntity.ok(campaignService.getCampaign(id));
+    }
+}
@@ -1,13 +1,21 @@
 package scm.notification.controller;
 
+import scm.notification.dto.NotificationBatchResponse;
 import scm.notification.dto.NotificationRequest;
 import scm.notification.dto.NotificationResponse;
+import scm.notification.service.AuditTrailService;
 import scm.notification.service.NotificationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * REST controller for notification operations.
@@ -22,6 +30,7 @@ import org.springframework.web.bind.annotation.*;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final AuditTrailService auditTrailService;
 
     /**
      * Triggers a notification through the specified channel.
@@ -32,13 +41,26 @@ public class NotificationController {
      * - WHATSAPP: Logs WhatsApp message (integration pending)
      * - PUSH: Logs push notification (integration pending)
      * 
-     * @param request The notification request containing channel, recipient, and
-     *                content
+     * Requests carrying an idempotency key (Idempotency-Key header or the
+     * idempotencyKey field) are accepted once; repeats return the original
+     * notification ID.
+     * 
+     * @param request        The notification request containing channel,
+     *                       recipient, and content
+     * @param idempotencyKey Optional key identifying retries of the same request
      * @return Response with notification ID and queued status
      */
     @PostMapping("/trigger")
     public ResponseEntity<NotificationResponse> triggerNotification(
-            @Valid @RequestBody NotificationRequest request) {
+            @Valid @RequestBody NotificationRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+
+        if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+            if (idempotencyKey.length() > 128) {
+                throw new IllegalArgumentException("Idempotency-Key must be at most 128 characters");
+            }
+            request.setIdempotencyKey(idempotencyKey);
+        }
 
         log.info("Received notification request for channel: {} to recipient: {}",
                 request.getChannel(), request.getRecipient());
@@ -50,6 +72,29 @@ public class NotificationController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Triggers a batch of notifications in a single call.
+     * 
+     * Entries are validated individually; valid entries are persisted in one
+     * transaction and invalid entries are reported back with their index and
+     * validation errors, so a single bad entry does not reject the whole batch.
+     * 
+     * @param requests The notification requests to queue
+     * @return Per-entry notification IDs or validation errors, in request order
+     */
+    @PostMapping("/trigger/batch")
+    public ResponseEntity<NotificationBatchResponse> triggerBatchNotifications(
+            @RequestBody List<NotificationRequest> requests) {
+
+        log.info("Received batch notification request with {} entries", requests.size());
+
+        NotificationBatchResponse response = notificationService.triggerBatch(requests);
+
+        log.info("Batch processed: {} queued, {} rejected", response.getAccepted(), response.getRejected());
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Retrieves the status of a specific notification by ID.
      * 
@@ -64,6 +109,49 @@ public class NotificationController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Streams the audit trail of a notification, oldest entry first. Archived
+     * notifications are served from the archive.
+     * 
+     * @param id     The UUID of the notification
+     * @param cursor nextCursor of the previous response, to continue after it
+     * @param limit  Maximum number of entries in this response
+     * @return {"entries": [...], "nextCursor": ...}, nextCursor null at the end
+     */
+    @GetMapping("/{id}/audit")
+    public ResponseEntity<StreamingResponseBody> getAuditTrail(@PathVariable String id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "1000") int limit) {
+        log.info("Received audit trail request for notification ID: {}", id);
+
+        StreamingResponseBody body = auditTrailService.notificationTrail(id, cursor, limit);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Streams the audit entries of all notifications recorded in a time range,
+     * oldest entry first.
+     * 
+     * @param from   Start of the range (inclusive), ISO date-time
+     * @param to     End of the range (exclusive), ISO date-time; defaults to now
+     * @param status Optional audit status filter, e.g. FAILED or ATTEMPT_FAILED
+     * @param cursor nextCursor of the previous response, to continue after it
+     * @param limit  Maximum number of entries in this response
+     * @return {"entries": [...], "nextCursor": ...}, nextCursor null at the end
+     */
+    @GetMapping("/audit")
+    public ResponseEntity<StreamingResponseBody> searchAudit(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "1000") int limit) {
+        log.info("Received audit search request from {} to {} (status {})", from, to, status);
+
+        StreamingResponseBody body = auditTrailService.search(from, to, status, cursor, limit);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     /**
      * Health check endpoint for load balancer probes.
      * 
@@ -0,0 +1,28 @@
+package scm.notification.dto;
+
+import scm.notification.enums.NotificationChannel;
+import scm.notification.enums.NotificationPriority;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * Message definition of a campaign; the recipients are uploaded as a file
+ * alongside it.
+ */
+@Data
+public class CampaignRequest {
+    @NotBlank(message = "Name is required")
+    private String name;
+
+    @NotNull(message = "Channel is required")
+    private NotificationChannel channel;
+
+    private String subject;
+
+    // Defaults to BULK
+    private NotificationPriority priority;
+
+    @NotBlank(message = "Content is required")
+    private String content;
+}
@@ -0,0 +1,30 @@
+package scm.notification.dto;
+
+import scm.notification.enums.CampaignStatus;
+import scm.notification.enums.NotificationChannel;
+import scm.notification.enums.NotificationPriority;
+import scm.notification.enums.NotificationStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+public class CampaignResponse {
+    private String id;
+    private String name;
+    private NotificationChannel channel;
+    private NotificationPriority priority;
+    private CampaignStatus status;
+    // Ingestion progress: records read, queued and skipped
+    private long received;
+    private long accepted;
+    private long rejected;
+    // Delivery progress: the campaign's notifications by status
+    private Map<NotificationStatus, Long> delivery;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+}
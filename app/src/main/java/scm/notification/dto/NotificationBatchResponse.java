@@ -0,0 +1,33 @@
+package scm.notification.dto;
+
+import scm.notification.enums.NotificationStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class NotificationBatchResponse {
+    private int accepted;
+    // Entries whose idempotency key matched an existing notification
+    private int duplicates;
+    private int rejected;
+    private List<Item> results;
+
+    /**
+     * Outcome of a single entry of the batch, in request order.
+     * Accepted entries carry an ID, rejected entries carry validation errors.
+     * Duplicates carry the ID of the notification created for their idempotency key.
+     */
+    @Data
+    @Builder
+    public static class Item {
+        private int index;
+        private String id;
+        private NotificationStatus status;
+        private boolean duplicate;
+        private Map<String, String> errors;
+    }
+}
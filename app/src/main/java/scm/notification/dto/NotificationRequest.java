@@ -1,9 +1,11 @@
 package scm.notification.dto;
 
 import scm.notification.enums.NotificationChannel;
+import scm.notification.enums.NotificationPriority;
 import scm.notification.validation.ValidRecipient;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 import java.util.Map;
 
@@ -18,8 +20,15 @@ public class NotificationRequest {
 
     private String subject;
 
+    // Defaults to NORMAL
+    private NotificationPriority priority;
+
     @NotBlank(message = "Content is required")
     private String content;
 
     private Map<String, String> attachments;
+
+    // Optional; may also be sent as the Idempotency-Key header
+    @Size(max = 128, message = "Idempotency key must be at most 128 characters")
+    private String idempotencyKey;
 }
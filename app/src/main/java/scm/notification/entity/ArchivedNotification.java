@@ -0,0 +1,84 @@
+package scm.notification.entity;
+
+import scm.notification.enums.NotificationChannel;
+import scm.notification.enums.NotificationPriority;
+import scm.notification.enums.NotificationStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A finished {@link Notification} moved out of the hot table by the archiver.
+ * Same columns, without the indexes and constraints that only the send path
+ * needs; rows are written by INSERT ... SELECT and never updated.
+ */
+@Entity
+@Immutable
+@Table(name = "notifications_archive", indexes = {
+        // Purge of archived rows past the purge window
+        @Index(name = "idx_notifications_archive_updated", columnList = "updated_at")
+})
+@Data
+@NoArgsConstructor
+public class ArchivedNotification {
+
+    @Id
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationChannel channel;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    private String subject;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String content;
+
+    @Column(length = 128)
+    private String idempotencyKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private NotificationPriority priority;
+
+    private int retryCount;
+
+    @Column(columnDefinition = "TEXT")
+    private String errorMessage;
+
+    private UUID campaignId;
+
+    @Column(length = 64)
+    private String contentFingerprint;
+
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private Long version;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    @ElementCollection
+    @CollectionTable(name = "notification_attachments_archive", joinColumns = @JoinColumn(name = "notification_id"),
+            indexes = @Index(name = "idx_notification_attachments_archive_hash", columnList = "content_hash"))
+    @MapKeyColumn(name = "filename")
+    @Column(name = "content_hash", length = 64)
+    private Map<String, String> attachments = new HashMap<>();
+}
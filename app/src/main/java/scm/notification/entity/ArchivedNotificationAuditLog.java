@@ -0,0 +1,36 @@
+package scm.notification.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An audit entry of an {@link ArchivedNotification}, moved together with it.
+ */
+@Entity
+@Immutable
+@Table(name = "notification_audit_logs_archive", indexes = {
+        @Index(name = "idx_audit_logs_archive_notification", columnList = "notification_id, timestamp")
+})
+@Data
+@NoArgsConstructor
+public class ArchivedNotificationAuditLog {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID notificationId;
+
+    private String status;
+
+    @Column(columnDefinition = "TEXT")
+    private String details;
+
+    @Column(nullable = false)
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,73 @@
+package scm.notification.entity;
+
+import scm.notification.enums.CampaignStatus;
+import scm.notification.enums.NotificationChannel;
+import scm.notification.enums.NotificationPriority;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One message definition sent to a streamed list of recipients. Every accepted
+ * recipient becomes a {@link Notification} carrying the campaign ID; the
+ * counters track ingestion progress.
+ */
+@Entity
+@Table(name = "campaigns")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Campaign {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationChannel channel;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private NotificationPriority priority;
+
+    private String subject;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String content;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private CampaignStatus status;
+
+    // Recipient records read from the upload
+    @Builder.Default
+    private long received = 0;
+
+    // Recipients queued as notifications
+    @Builder.Default
+    private long accepted = 0;
+
+    // Recipients skipped as blank or invalid for the channel
+    @Builder.Default
+    private long rejected = 0;
+
+    @Column(columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime completedAt;
+}
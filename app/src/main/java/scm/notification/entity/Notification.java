@@ -1,12 +1,14 @@
 package scm.notification.entity;
 
 import scm.notification.enums.NotificationChannel;
+import scm.notification.enums.NotificationPriority;
 import scm.notification.enums.NotificationStatus;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -16,15 +18,27 @@ import java.util.Map;
 import java.util.UUID;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        // Keyset scans of the stuck-notification scanner, one priority at a time
+        @Index(name = "idx_notifications_lease_scan", columnList = "status, priority, updated_at, id"),
+        // Due-time claims of the dispatcher, one priority lane at a time
+        @Index(name = "idx_notifications_dispatch", columnList = "status, priority, next_attempt_at, id"),
+        // Per-status progress counts of a campaign
+        @Index(name = "idx_notifications_campaign", columnList = "campaign_id, status")
+}, uniqueConstraints = {
+        // Client-supplied Idempotency-Key; NULLs (no key) do not collide
+        @UniqueConstraint(name = Notification.IDEMPOTENCY_KEY_CONSTRAINT, columnNames = "idempotency_key")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Notification {
 
+    public static final String IDEMPOTENCY_KEY_CONSTRAINT = "uk_notifications_idempotency_key";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Enumerated(EnumType.STRING)
@@ -39,16 +53,39 @@ public class Notification {
     @Column(columnDefinition = "TEXT", nullable = false)
     private String content;
 
+    @Column(length = 128, updatable = false)
+    private String idempotencyKey;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private NotificationStatus status;
 
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    @ColumnDefault("'NORMAL'") // Backfills rows created before priorities existed
+    @Builder.Default
+    private NotificationPriority priority = NotificationPriority.NORMAL;
+
     @Builder.Default
     private int retryCount = 0;
 
     @Column(columnDefinition = "TEXT")
     private String errorMessage;
 
+    // Set on notifications created from a campaign upload
+    @Column(updatable = false)
+    private UUID campaignId;
+
+    // SHA-256 of subject, content and attachments; set on email rows that may share a fan-out message
+    @Column(length = 64, updatable = false)
+    private String contentFingerprint;
+
+    // Earliest time the dispatcher may claim this row (initial grace or retry backoff)
+    private LocalDateTime nextAttemptAt;
+
+    // When the first delivery attempt finished, whatever its outcome (deferral included); null until then
+    private LocalDateTime firstAttemptAt;
+
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
@@ -59,10 +96,13 @@ public class Notification {
     @Version // Optimistic locking
     private Long version;
 
+    // filename -> SHA-256 key of the blob in the AttachmentStore
     @ElementCollection
-    @CollectionTable(name = "notification_attachments", joinColumns = @JoinColumn(name = "notification_id"))
+    @CollectionTable(name = "notification_attachments", joinColumns = @JoinColumn(name = "notification_id"),
+            // Reference checks of the attachment collector
+            indexes = @Index(name = "idx_notification_attachments_hash", columnList = "content_hash"))
     @MapKeyColumn(name = "filename")
-    @Column(name = "content", columnDefinition = "LONGTEXT")
+    @Column(name = "content_hash", length = 64)
     @Builder.Default
     private Map<String, String> attachments = new HashMap<>();
 }
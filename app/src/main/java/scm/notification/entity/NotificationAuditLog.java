@@ -5,13 +5,17 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "notification_audit_logs")
+@Table(name = "notification_audit_logs", indexes = {
+        // A notification's history in order; also used to move it to the archive
+        @Index(name = "idx_audit_logs_notification", columnList = "notification_id, timestamp"),
+        // Time-range audit searches
+        @Index(name = "idx_audit_logs_timestamp", columnList = "timestamp")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -19,7 +23,7 @@ import java.util.UUID;
 public class NotificationAuditLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(nullable = false)
@@ -30,6 +34,14 @@ public class NotificationAuditLog {
     @Column(columnDefinition = "TEXT")
     private String details;
 
-    @CreationTimestamp
+    // Set when the event is recorded, which can precede the (batched) insert
+    @Column(nullable = false, updatable = false)
     private LocalDateTime timestamp;
+
+    @PrePersist
+    void onPersist() {
+        if (timestamp == null) {
+            timestamp = LocalDateTime.now();
+        }
+    }
 }
@@ -0,0 +1,32 @@
+package scm.notification.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Shared token bucket state for cluster-wide rate limiting. One row per bucket
+ * key ("channel:EMAIL", "domain:gmail.com"); replicas lock the row briefly to
+ * refill it and take a lease of tokens.
+ */
+@Entity
+@Table(name = "rate_limit_buckets")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitBucket {
+
+    @Id
+    @Column(length = 191)
+    private String bucketKey;
+
+    @Column(nullable = false)
+    private double tokens;
+
+    // Epoch millis of the last refill
+    @Column(nullable = false)
+    private long refilledAt;
+}
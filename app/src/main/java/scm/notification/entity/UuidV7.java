@@ -0,0 +1,19 @@
+package scm.notification.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates the annotated identifier as a time-ordered UUIDv7 (RFC 9562), so
+ * new rows are appended at the end of the clustered primary key instead of
+ * landing on random pages. Use instead of {@code @GeneratedValue}.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD, ElementType.METHOD })
+public @interface UuidV7 {
+}
@@ -0,0 +1,56 @@
+package scm.notification.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UUIDv7 identifiers: 48-bit Unix timestamp in milliseconds, version, a 12-bit
+ * counter and 62 random bits.
+ *
+ * The counter makes IDs generated in this JVM strictly increasing, also within
+ * one millisecond (RFC 9562, method 1); when it overflows, the timestamp field
+ * runs ahead by a millisecond rather than going backwards. Stored as
+ * BINARY(16), the big-endian bytes sort in generation order. The random bits
+ * come from SecureRandom, as they did for the random (v4) IDs.
+ */
+public final class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // (timestamp << 12) | counter of the last generated ID
+    private static final AtomicLong LAST = new AtomicLong();
+
+    public static UUID next() {
+        long now = System.currentTimeMillis();
+        long previous;
+        long current;
+        do {
+            previous = LAST.get();
+            current = now > (previous >>> 12) ? now << 12 : previous + 1;
+        } while (!LAST.compareAndSet(previous, current));
+
+        long timestamp = current >>> 12;
+        long counter = current & 0xFFFL;
+        long mostSigBits = (timestamp << 16) | 0x7000L | counter;
+        long leastSigBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+            EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -0,0 +1,10 @@
+package scm.notification.enums;
+
+/**
+ * Ingestion state of a campaign's recipient upload.
+ */
+public enum CampaignStatus {
+    INGESTING,
+    COMPLETED,
+    FAILED // Upload aborted; recipients accepted before the error are still delivered
+}
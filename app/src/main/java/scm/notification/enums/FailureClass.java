@@ -0,0 +1,6 @@
+package scm.notification.enums;
+
+public enum FailureClass {
+    TRANSIENT,
+    PERMANENT
+}
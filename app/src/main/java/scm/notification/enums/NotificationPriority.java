@@ -0,0 +1,11 @@
+package scm.notification.enums;
+
+/**
+ * Delivery priority, highest first. Each priority has its own dispatch lane.
+ */
+public enum NotificationPriority {
+    CRITICAL, // OTP / 2FA codes, security alerts
+    HIGH, // Transactional messages (receipts, password resets)
+    NORMAL,
+    BULK // Marketing and other broadcast traffic
+}
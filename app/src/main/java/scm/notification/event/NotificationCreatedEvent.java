@@ -1,5 +1,6 @@
 package scm.notification.event;
 
+import scm.notification.enums.NotificationPriority;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.springframework.lang.NonNull;
@@ -11,4 +12,6 @@ import java.util.UUID;
 public class NotificationCreatedEvent {
     @NonNull
     private final UUID notificationId;
+    @NonNull
+    private final NotificationPriority priority;
 }
@@ -1,20 +1,32 @@
 package scm.notification.event;
 
+import scm.notification.service.DeliveryLanes;
 import scm.notification.service.NotificationProcessor;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 
 @Component
 @RequiredArgsConstructor
+@Slf4j
 public class NotificationEventListener {
 
     private final NotificationProcessor notificationProcessor;
+    private final DeliveryLanes deliveryLanes;
 
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void handleNotificationCreated(NotificationCreatedEvent event) {
-        // Trigger Async processing
-        notificationProcessor.process(event.getNotificationId());
+        // Trigger Async processing on the notification's priority lane
+        try {
+            deliveryLanes.submit(event.getPriority(), () -> notificationProcessor.process(event.getNotificationId()));
+        } catch (TaskRejectedException e) {
+            // Large batches can outrun the lane queue; the row stays PENDING and
+            // is picked up by the dispatcher instead.
+            log.warn("{} lane saturated, notification {} left for the dispatcher", event.getPriority(),
+                    event.getNotificationId());
+        }
     }
 }
@@ -0,0 +1,21 @@
+package scm.notification.exception;
+
+import scm.notification.enums.NotificationChannel;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Thrown when a delivery finds its channel at the concurrency limit; the
+ * delivery is deferred instead of waiting for a slot.
+ */
+@Getter
+public class BulkheadFullException extends DeliveryDeferredException {
+
+    private final NotificationChannel channel;
+
+    public BulkheadFullException(NotificationChannel channel, Instant retryAt) {
+        super("Concurrency limit reached for channel " + channel, retryAt);
+        this.channel = channel;
+    }
+}
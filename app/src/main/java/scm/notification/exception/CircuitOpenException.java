@@ -0,0 +1,21 @@
+package scm.notification.exception;
+
+import scm.notification.enums.NotificationChannel;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Thrown when the circuit breaker of a channel is open (or half-open with all
+ * probe calls in flight) and the delivery was not attempted.
+ */
+@Getter
+public class CircuitOpenException extends DeliveryDeferredException {
+
+    private final NotificationChannel channel;
+
+    public CircuitOpenException(NotificationChannel channel, Instant retryAt) {
+        super("Circuit breaker open for channel " + channel, retryAt);
+        this.channel = channel;
+    }
+}
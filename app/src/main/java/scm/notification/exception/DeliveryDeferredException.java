@@ -0,0 +1,21 @@
+package scm.notification.exception;
+
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Thrown when a delivery was not attempted because the channel is shedding
+ * load. The notification is parked until {@link #getRetryAt()} without
+ * consuming its retry budget.
+ */
+@Getter
+public class DeliveryDeferredException extends RuntimeException {
+
+    private final Instant retryAt;
+
+    public DeliveryDeferredException(String message, Instant retryAt) {
+        super(message);
+        this.retryAt = retryAt;
+    }
+}
@@ -1,6 +1,7 @@
 package scm.notification.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -99,6 +100,48 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(response);
     }
 
+    /**
+     * Handles a concurrent request inserting the same idempotency key first.
+     * Retrying the request returns the notification created by the other one.
+     */
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<Map<String, Object>> handleIdempotencyConflict(IdempotencyConflictException ex) {
+        log.warn("Idempotency conflict: {}", ex.getMessage());
+        return idempotencyConflict();
+    }
+
+    /**
+     * Handles constraint violations on insert or update. A batch whose
+     * idempotency key was inserted concurrently fails at commit with the
+     * unique key violation, which is reported like any idempotency conflict;
+     * other violations get a generic message without database details.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, Object>> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        if (IdempotencyConflictException.isIdempotencyKeyViolation(ex)) {
+            log.warn("Idempotency conflict: {}", ex.getMessage());
+            return idempotencyConflict();
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now());
+        response.put("status", HttpStatus.BAD_REQUEST.value());
+        response.put("error", "Invalid Request");
+        response.put("message", "The request could not be stored because it violates a data constraint.");
+
+        log.warn("Data integrity violation: {}", ex.getMessage());
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    private static ResponseEntity<Map<String, Object>> idempotencyConflict() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now());
+        response.put("status", HttpStatus.CONFLICT.value());
+        response.put("error", "Conflict");
+        response.put("message", "A concurrent request with the same idempotency key is in progress. Please retry.");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
     /**
      * Handles all runtime exceptions.
      */
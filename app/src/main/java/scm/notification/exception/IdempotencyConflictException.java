@@ -0,0 +1,37 @@
+package scm.notification.exception;
+
+import scm.notification.entity.Notification;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Thrown when a notification with the same idempotency key is being inserted
+ * by a concurrent request that has not committed yet. Retrying the request
+ * returns the notification created by the other one.
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+    public IdempotencyConflictException(String idempotencyKey, Throwable cause) {
+        super("A concurrent request with idempotency key " + idempotencyKey + " is in progress", cause);
+    }
+
+    /**
+     * Whether the violation is the unique index on the idempotency key, as
+     * opposed to any other constraint.
+     */
+    public static boolean isIdempotencyKeyViolation(DataIntegrityViolationException e) {
+        String constraint = Notification.IDEMPOTENCY_KEY_CONSTRAINT;
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            // MySQL reports the key qualified with its table, e.g. notifications.uk_...
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT).contains(constraint);
+            }
+            if (cause.getCause() == null && cause.getMessage() != null) {
+                return cause.getMessage().toLowerCase(Locale.ROOT).contains(constraint);
+            }
+        }
+        return false;
+    }
+}
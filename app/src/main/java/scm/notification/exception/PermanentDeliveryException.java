@@ -0,0 +1,17 @@
+package scm.notification.exception;
+
+/**
+ * Thrown by providers for failures that can never succeed on retry
+ * (rejected recipient, invalid payload, ...). The notification is failed
+ * immediately instead of consuming its retry budget.
+ */
+public class PermanentDeliveryException extends RuntimeException {
+
+    public PermanentDeliveryException(String message) {
+        super(message);
+    }
+
+    public PermanentDeliveryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
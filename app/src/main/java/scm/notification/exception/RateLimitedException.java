@@ -0,0 +1,14 @@
+package scm.notification.exception;
+
+import java.time.Instant;
+
+/**
+ * Thrown when a send permit is not available yet for the notification's channel
+ * or recipient domain.
+ */
+public class RateLimitedException extends DeliveryDeferredException {
+
+    public RateLimitedException(String bucketKey, Instant retryAt) {
+        super("Rate limit reached for " + bucketKey, retryAt);
+    }
+}
@@ -3,12 +3,24 @@ package scm.notification.provider;
 import scm.notification.constants.EmailConstants;
 import scm.notification.entity.Notification;
 import scm.notification.enums.NotificationChannel;
+import scm.notification.exception.PermanentDeliveryException;
 import scm.notification.service.EmailService;
+import scm.notification.storage.AttachmentStore;
 import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Component;
 
+import java.net.IDN;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
 /**
  * Production-grade email notification provider using SMTP.
  * Sends real emails via the configured SMTP server with HTML templates.
@@ -19,6 +31,7 @@ import org.springframework.stereotype.Component;
 public class EmailNotificationProvider implements NotificationProvider {
 
     private final EmailService emailService;
+    private final AttachmentStore attachmentStore;
 
     @Override
     public boolean supports(NotificationChannel channel) {
@@ -37,12 +50,12 @@ public class EmailNotificationProvider implements NotificationProvider {
 
         // Validate email address
         if (!emailService.isValidEmail(recipient)) {
-            throw new IllegalArgumentException("Invalid email address: " + recipient);
+            throw new PermanentDeliveryException("Invalid email address: " + recipient);
         }
 
         try {
             // Use the templated email service for production-grade emails
-            emailService.sendNotificationEmail(recipient, subject, content, notification.getAttachments());
+            emailService.sendNotificationEmail(recipient, subject, content, resolveAttachments(notification));
 
             log.info("[EMAIL PROVIDER] Email successfully sent to: {}", recipient);
 
@@ -51,4 +64,110 @@ public class EmailNotificationProvider implements NotificationProvider {
             throw new RuntimeException("Email sending failed: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Sends the group as one email with one RCPT TO per recipient, rendering and
+     * encoding the message once. Invalid addresses are failed up front and left
+     * off the envelope; recipients the server refuses are reported per
+     * notification. Servers may collapse repeated RCPT TO addresses into one
+     * delivery, so further notifications to the same address go out in
+     * follow-up emails, one per repeat.
+     */
+    @Override
+    public Map<UUID, Exception> sendGroup(List<Notification> group) {
+        Map<UUID, Exception> failures = new HashMap<>();
+        // Envelopes of distinct (normalized) addresses; a notification goes into the first one without its address
+        List<Map<String, Notification>> envelopes = new ArrayList<>();
+        for (Notification notification : group) {
+            if (!emailService.isValidEmail(notification.getRecipient())) {
+                failures.put(notification.getId(),
+                        new PermanentDeliveryException("Invalid email address: " + notification.getRecipient()));
+                continue;
+            }
+            String address = normalize(notification.getRecipient());
+            Map<String, Notification> envelope = envelopes.stream()
+                    .filter(e -> !e.containsKey(address))
+                    .findFirst()
+                    .orElseGet(() -> {
+                        Map<String, Notification> added = new LinkedHashMap<>();
+                        envelopes.add(added);
+                        return added;
+                    });
+            envelope.put(address, notification);
+        }
+        if (envelopes.isEmpty()) {
+            return failures;
+        }
+
+        Notification first = group.get(0);
+        String subject = first.getSubject() != null
+                ? first.getSubject()
+                : EmailConstants.SUBJECT_GENERAL_NOTIFICATION;
+        log.info("[EMAIL PROVIDER] Initiating fan-out email to {} recipients in {} message(s)",
+                group.size() - failures.size(), envelopes.size());
+
+        for (int i = 0; i < envelopes.size(); i++) {
+            Map<String, Notification> envelope = envelopes.get(i);
+            try {
+                List<String> recipients = envelope.values().stream().map(Notification::getRecipient).toList();
+                Map<String, MessagingException> undelivered = emailService.sendNotificationEmailToAll(
+                        recipients, subject, first.getContent(), resolveAttachments(first));
+                undelivered.forEach((recipient, failure) -> {
+                    Notification notification = envelope.get(normalize(recipient));
+                    if (notification == null) {
+                        // The other recipients already have the message; failing the group would resend it
+                        log.warn("[EMAIL PROVIDER] Server refused {}, which matches no recipient of the email: {}",
+                                recipient, failure.getMessage());
+                        return;
+                    }
+                    failures.put(notification.getId(), failure);
+                });
+            } catch (MessagingException e) {
+                log.error("[EMAIL PROVIDER] Failed to send fan-out email: {}", e.getMessage(), e);
+                RuntimeException failure = new RuntimeException("Email sending failed: " + e.getMessage(), e);
+                if (i == 0) {
+                    throw failure;
+                }
+                // Earlier emails went out; only this one's notifications are retried
+                envelope.values().forEach(notification -> failures.put(notification.getId(), failure));
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Comparable form of an address: trimmed, unquoted local part, lower case,
+     * and an internationalized domain in its ASCII (punycode) form, so that
+     * addresses reported back by the mail server match the stored ones.
+     */
+    private static String normalize(String address) {
+        String trimmed = address.trim();
+        int at = trimmed.lastIndexOf('@');
+        if (at < 0) {
+            return trimmed.toLowerCase(Locale.ROOT);
+        }
+        String local = trimmed.substring(0, at);
+        if (local.length() > 1 && local.startsWith("\"") && local.endsWith("\"")) {
+            local = local.substring(1, local.length() - 1);
+        }
+        String domain = trimmed.substring(at + 1);
+        try {
+            domain = IDN.toASCII(domain, IDN.ALLOW_UNASSIGNED);
+        } catch (IllegalArgumentException e) {
+            // Not a valid IDN; compare as written
+        }
+        return (local + "@" + domain).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Maps stored attachment references to resources that stream from the store
+     * while the MIME message is written, instead of loading them into memory.
+     */
+    private Map<String, InputStreamSource> resolveAttachments(Notification notification) {
+        Map<String, InputStreamSource> resolved = new LinkedHashMap<>();
+        if (notification.getAttachments() != null) {
+            notification.getAttachments().forEach((filename, hash) -> resolved.put(filename, attachmentStore.get(hash)));
+        }
+        return resolved;
+    }
 }
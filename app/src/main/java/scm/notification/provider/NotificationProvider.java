@@ -3,8 +3,33 @@ package scm.notification.provider;
 import scm.notification.entity.Notification;
 import scm.notification.enums.NotificationChannel;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 public interface NotificationProvider {
     boolean supports(NotificationChannel channel);
 
     void send(Notification notification);
+
+    /**
+     * Sends notifications that share subject, content and attachments and differ
+     * only by recipient. Providers that can address many recipients with one
+     * message override this; the default sends them one by one.
+     *
+     * @return Failures by notification ID; notifications without an entry were sent
+     * @throws RuntimeException if nothing was sent
+     */
+    default Map<UUID, Exception> sendGroup(List<Notification> group) {
+        Map<UUID, Exception> failures = new HashMap<>();
+        for (Notification notification : group) {
+            try {
+                send(notification);
+            } catch (RuntimeException e) {
+                failures.put(notification.getId(), e);
+            }
+        }
+        return failures;
+    }
 }
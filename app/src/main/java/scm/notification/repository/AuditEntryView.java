@@ -0,0 +1,19 @@
+package scm.notification.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection of one audit entry, read from the hot or the archive table.
+ */
+public interface AuditEntryView {
+    UUID getId();
+
+    UUID getNotificationId();
+
+    String getStatus();
+
+    String getDetails();
+
+    LocalDateTime getTimestamp();
+}
@@ -0,0 +1,33 @@
+package scm.notification.repository;
+
+import scm.notification.entity.Campaign;
+import scm.notification.enums.CampaignStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface CampaignRepository extends JpaRepository<Campaign, UUID> {
+
+    /**
+     * Adds one ingested batch to the progress counters; runs in the batch's
+     * transaction so the counters always match the inserted rows.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Campaign c SET c.received = c.received + :received, c.accepted = c.accepted + :accepted, "
+            + "c.rejected = c.rejected + :rejected WHERE c.id = :id")
+    int addProgress(@Param("id") UUID id, @Param("received") long received, @Param("accepted") long accepted,
+            @Param("rejected") long rejected);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Campaign c SET c.status = :status, c.errorMessage = :errorMessage, c.completedAt = :now "
+            + "WHERE c.id = :id")
+    int finish(@Param("id") UUID id, @Param("status") CampaignStatus status,
+            @Param("errorMessage") String errorMessage, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,13 @@
+package scm.notification.repository;
+
+import java.util.UUID;
+
+/**
+ * Projection used to resolve idempotency keys of a batch to the notifications
+ * that were already created for them.
+ */
+public interface IdempotencyKeyView {
+    UUID getId();
+
+    String getIdempotencyKey();
+}
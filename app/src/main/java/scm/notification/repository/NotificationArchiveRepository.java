@@ -0,0 +1,92 @@
+package scm.notification.repository;
+
+import scm.notification.entity.ArchivedNotification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Moves notifications between the hot tables and the archive tables. The copy
+ * and delete statements work on ID batches and are meant to run together in
+ * one transaction, after the caller has locked the hot rows.
+ */
+public interface NotificationArchiveRepository extends JpaRepository<ArchivedNotification, UUID> {
+
+    Optional<NotificationStatusView> findStatusById(UUID id);
+
+    /**
+     * Keyset page of an archived notification's audit trail; see
+     * {@link NotificationAuditLogRepository#findTrailPage}.
+     */
+    @Query("SELECT a.id AS id, a.notificationId AS notificationId, a.status AS status, a.details AS details, "
+            + "a.timestamp AS timestamp FROM ArchivedNotificationAuditLog a WHERE a.notificationId = :notificationId "
+            + "AND (a.timestamp > :afterTimestamp OR (a.timestamp = :afterTimestamp AND a.id > :afterId)) "
+            + "ORDER BY a.timestamp, a.id")
+    List<AuditEntryView> findTrailPage(@Param("notificationId") UUID notificationId,
+            @Param("afterTimestamp") LocalDateTime afterTimestamp, @Param("afterId") UUID afterId,
+            Pageable pageable);
+
+    @Modifying
+    @Query(value = "INSERT INTO notifications_archive (id, channel, recipient, subject, content, idempotency_key, "
+            + "status, priority, retry_count, error_message, campaign_id, content_fingerprint, next_attempt_at, "
+            + "created_at, updated_at, version, archived_at) "
+            + "SELECT id, channel, recipient, subject, content, idempotency_key, status, priority, retry_count, "
+            + "error_message, campaign_id, content_fingerprint, next_attempt_at, created_at, updated_at, version, :now "
+            + "FROM notifications WHERE id IN :ids", nativeQuery = true)
+    int copyNotifications(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "INSERT INTO notification_attachments_archive (notification_id, filename, content_hash) "
+            + "SELECT notification_id, filename, content_hash FROM notification_attachments "
+            + "WHERE notification_id IN :ids", nativeQuery = true)
+    int copyAttachments(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = "INSERT INTO notification_audit_logs_archive (id, notification_id, status, details, timestamp) "
+            + "SELECT id, notification_id, status, details, timestamp FROM notification_audit_logs "
+            + "WHERE notification_id IN :ids", nativeQuery = true)
+    int copyAuditLogs(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM notification_attachments WHERE notification_id IN :ids", nativeQuery = true)
+    int deleteAttachments(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM notification_audit_logs WHERE notification_id IN :ids", nativeQuery = true)
+    int deleteAuditLogs(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM notifications WHERE id IN :ids", nativeQuery = true)
+    int deleteNotifications(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * A batch of archived notifications last updated before the cutoff, served
+     * by the updated_at index.
+     */
+    @Query("SELECT a.id FROM ArchivedNotification a WHERE a.updatedAt < :cutoff ORDER BY a.updatedAt")
+    List<UUID> findPurgeable(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Query(value = "SELECT DISTINCT content_hash FROM notification_attachments_archive "
+            + "WHERE notification_id IN :ids", nativeQuery = true)
+    List<String> findAttachmentHashes(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM notification_attachments_archive WHERE notification_id IN :ids", nativeQuery = true)
+    int purgeAttachments(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM notification_audit_logs_archive WHERE notification_id IN :ids", nativeQuery = true)
+    int purgeAuditLogs(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM notifications_archive WHERE id IN :ids", nativeQuery = true)
+    int purgeNotifications(@Param("ids") Collection<UUID> ids);
+}
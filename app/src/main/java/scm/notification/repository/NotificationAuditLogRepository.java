@@ -1,9 +1,39 @@
 package scm.notification.repository;
 
 import scm.notification.entity.NotificationAuditLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 public interface NotificationAuditLogRepository extends JpaRepository<NotificationAuditLog, UUID> {
+
+    /**
+     * One keyset page of a notification's audit trail in (timestamp, id) order,
+     * served by the (notification_id, timestamp) index.
+     */
+    @Query("SELECT a.id AS id, a.notificationId AS notificationId, a.status AS status, a.details AS details, "
+            + "a.timestamp AS timestamp FROM NotificationAuditLog a WHERE a.notificationId = :notificationId "
+            + "AND (a.timestamp > :afterTimestamp OR (a.timestamp = :afterTimestamp AND a.id > :afterId)) "
+            + "ORDER BY a.timestamp, a.id")
+    List<AuditEntryView> findTrailPage(@Param("notificationId") UUID notificationId,
+            @Param("afterTimestamp") LocalDateTime afterTimestamp, @Param("afterId") UUID afterId,
+            Pageable pageable);
+
+    /**
+     * One keyset page of the audit entries recorded in [from, to), optionally of
+     * one status only, in (timestamp, id) order, served by the timestamp index.
+     */
+    @Query("SELECT a.id AS id, a.notificationId AS notificationId, a.status AS status, a.details AS details, "
+            + "a.timestamp AS timestamp FROM NotificationAuditLog a WHERE a.timestamp >= :from AND a.timestamp < :to "
+            + "AND (:status IS NULL OR a.status = :status) "
+            + "AND (a.timestamp > :afterTimestamp OR (a.timestamp = :afterTimestamp AND a.id > :afterId)) "
+            + "ORDER BY a.timestamp, a.id")
+    List<AuditEntryView> findRangePage(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            @Param("status") String status, @Param("afterTimestamp") LocalDateTime afterTimestamp,
+            @Param("afterId") UUID afterId, Pageable pageable);
 }
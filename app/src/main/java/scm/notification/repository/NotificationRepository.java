@@ -1,18 +1,165 @@
 package scm.notification.repository;
 
 import scm.notification.entity.Notification;
+import scm.notification.enums.NotificationChannel;
+import scm.notification.enums.NotificationPriority;
 import scm.notification.enums.NotificationStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface NotificationRepository extends JpaRepository<Notification, UUID> {
 
-    @Query("SELECT n FROM Notification n WHERE n.status IN :statuses AND n.updatedAt < :time")
-    List<Notification> findPendingNotifications(@Param("statuses") List<NotificationStatus> statuses,
-            @Param("time") LocalDateTime time);
+    Optional<NotificationStatusView> findStatusById(UUID id);
+
+    /**
+     * Returns those of the attachment blob keys that a live or archived
+     * notification still refers to.
+     */
+    @Query(value = "SELECT content_hash FROM notification_attachments WHERE content_hash IN :hashes "
+            + "UNION SELECT content_hash FROM notification_attachments_archive WHERE content_hash IN :hashes",
+            nativeQuery = true)
+    List<String> findReferencedAttachments(@Param("hashes") Collection<String> hashes);
+
+    long countByStatus(NotificationStatus status);
+
+    @Query("SELECT n.status AS status, COUNT(n) AS count FROM Notification n "
+            + "WHERE n.campaignId = :campaignId GROUP BY n.status")
+    List<StatusCountView> countByStatusForCampaign(@Param("campaignId") UUID campaignId);
+
+    /**
+     * Loads a notification together with its attachment references in one
+     * query, for use outside a transaction.
+     */
+    @EntityGraph(attributePaths = "attachments")
+    Optional<Notification> findWithAttachmentsById(UUID id);
+
+    @EntityGraph(attributePaths = "attachments")
+    List<Notification> findWithAttachmentsByIdIn(Collection<UUID> ids);
+
+    @Query("SELECT n.id FROM Notification n WHERE n.idempotencyKey = :idempotencyKey")
+    Optional<UUID> findIdByIdempotencyKey(@Param("idempotencyKey") String idempotencyKey);
+
+    @Query("SELECT n.id AS id, n.idempotencyKey AS idempotencyKey FROM Notification n "
+            + "WHERE n.idempotencyKey IN :idempotencyKeys")
+    List<IdempotencyKeyView> findByIdempotencyKeys(@Param("idempotencyKeys") Collection<String> idempotencyKeys);
+
+    /**
+     * Lock timeout hint understood by Hibernate as {@code SKIP LOCKED}: rows already
+     * locked by another worker are left out of the result instead of blocking.
+     */
+    String SKIP_LOCKED = "-2";
+
+    /**
+     * One keyset page of rows of a single status and priority last touched before
+     * the cutoff, in (updated_at, id) order so that it is served by the composite
+     * index.
+     * Rows locked by another scanner are skipped.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("SELECT n.id AS id, n.retryCount AS retryCount, n.updatedAt AS updatedAt FROM Notification n "
+            + "WHERE n.status = :status AND n.priority = :priority AND n.updatedAt < :cutoff "
+            + "AND (n.updatedAt > :afterUpdatedAt OR (n.updatedAt = :afterUpdatedAt AND n.id > :afterId)) "
+            + "ORDER BY n.updatedAt, n.id")
+    List<StuckNotificationView> findStuckPage(@Param("status") NotificationStatus status,
+            @Param("priority") NotificationPriority priority, @Param("cutoff") LocalDateTime cutoff,
+            @Param("afterUpdatedAt") LocalDateTime afterUpdatedAt, @Param("afterId") UUID afterId,
+            Pageable pageable);
+
+    /**
+     * Locks the oldest batch of rows of a single (terminal) status and priority
+     * last touched before the cutoff, for the archiver. Served by the
+     * (status, priority, updated_at) index; rows locked elsewhere are skipped.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("SELECT n.id FROM Notification n WHERE n.status = :status AND n.priority = :priority "
+            + "AND n.updatedAt < :cutoff ORDER BY n.updatedAt, n.id")
+    List<UUID> findArchivable(@Param("status") NotificationStatus status,
+            @Param("priority") NotificationPriority priority, @Param("cutoff") LocalDateTime cutoff,
+            Pageable pageable);
+
+    /**
+     * Locks a batch of notifications whose next attempt is due, skipping rows
+     * that another worker already holds, for one priority lane and the given
+     * channels only. Served by the (status, priority, next_attempt_at) index.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("SELECT n FROM Notification n WHERE n.status = :status AND n.priority = :priority "
+            + "AND n.channel IN :channels AND n.nextAttemptAt <= :now ORDER BY n.nextAttemptAt, n.id")
+    List<Notification> findDueForDispatch(@Param("status") NotificationStatus status,
+            @Param("priority") NotificationPriority priority,
+            @Param("channels") Collection<NotificationChannel> channels, @Param("now") LocalDateTime now,
+            Pageable pageable);
+
+    /**
+     * Compare-and-set status transition. Returns 0 when the row is no longer in
+     * the expected status, i.e. another worker has already claimed or finished it.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.status = :to, n.updatedAt = :now, n.version = n.version + 1 "
+            + "WHERE n.id = :id AND n.status = :from")
+    int transitionStatus(@Param("id") UUID id, @Param("from") NotificationStatus from,
+            @Param("to") NotificationStatus to, @Param("now") LocalDateTime now);
+
+    /**
+     * Records the outcome of a delivery attempt, stamping first_attempt_at on
+     * the first one. Only matches while the row is still IN_PROGRESS at the
+     * version the attempt started from; returns 0 when the lease expired and
+     * the row has been requeued (and possibly claimed again) in the meantime.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.status = :status, n.errorMessage = :errorMessage, "
+            + "n.retryCount = :retryCount, n.nextAttemptAt = :nextAttemptAt, n.updatedAt = :now, "
+            + "n.firstAttemptAt = COALESCE(n.firstAttemptAt, :now), "
+            + "n.version = n.version + 1 WHERE n.id = :id AND n.version = :version "
+            + "AND n.status = scm.notification.enums.NotificationStatus.IN_PROGRESS")
+    int completeAttempt(@Param("id") UUID id, @Param("version") Long version,
+            @Param("status") NotificationStatus status, @Param("errorMessage") String errorMessage,
+            @Param("retryCount") int retryCount, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * Moves a batch of rows (already locked by the caller) to a new status in a
+     * single statement, recording {@code errorMessage} and adding
+     * {@code increment} to their retry count.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.status = :status, n.errorMessage = :errorMessage, "
+            + "n.retryCount = n.retryCount + :increment, n.updatedAt = :now, n.version = n.version + 1 "
+            + "WHERE n.id IN :ids")
+    int bulkTransition(@Param("ids") List<UUID> ids, @Param("status") NotificationStatus status,
+            @Param("errorMessage") String errorMessage, @Param("increment") int increment,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * Returns a batch of rows whose lease expired to PENDING, counting the lost
+     * attempt and making them due at {@code nextAttemptAt}.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.status = scm.notification.enums.NotificationStatus.PENDING, "
+            + "n.retryCount = n.retryCount + 1, n.nextAttemptAt = :nextAttemptAt, n.updatedAt = :now, "
+            + "n.version = n.version + 1 WHERE n.id IN :ids")
+    int bulkRequeue(@Param("ids") List<UUID> ids, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+            @Param("now") LocalDateTime now);
 }
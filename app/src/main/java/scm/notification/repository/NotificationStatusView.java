@@ -0,0 +1,17 @@
+package scm.notification.repository;
+
+import scm.notification.enums.NotificationStatus;
+
+import java.util.UUID;
+
+/**
+ * Projection used by status lookups so that the TEXT content and attachments
+ * are never loaded just to answer a poll.
+ */
+public interface NotificationStatusView {
+    UUID getId();
+
+    NotificationStatus getStatus();
+
+    String getErrorMessage();
+}
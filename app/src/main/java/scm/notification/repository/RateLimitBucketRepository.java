@@ -0,0 +1,31 @@
+package scm.notification.repository;
+
+import scm.notification.entity.RateLimitBucket;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface RateLimitBucketRepository extends JpaRepository<RateLimitBucket, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM RateLimitBucket b WHERE b.bucketKey = :bucketKey")
+    Optional<RateLimitBucket> lockByKey(@Param("bucketKey") String bucketKey);
+
+    /**
+     * Creates the bucket full if it does not exist yet, and leaves the row
+     * exclusively locked either way. Unlike a locking read of a missing key,
+     * which takes a gap lock that concurrent creators then deadlock on, this
+     * is safe to run from several replicas at once.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO rate_limit_buckets (bucket_key, tokens, refilled_at) "
+            + "VALUES (:bucketKey, :tokens, :refilledAt) "
+            + "ON DUPLICATE KEY UPDATE bucket_key = bucket_key", nativeQuery = true)
+    int createIfAbsent(@Param("bucketKey") String bucketKey, @Param("tokens") double tokens,
+            @Param("refilledAt") long refilledAt);
+}
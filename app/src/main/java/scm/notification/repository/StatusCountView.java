@@ -0,0 +1,12 @@
+package scm.notification.repository;
+
+import scm.notification.enums.NotificationStatus;
+
+/**
+ * Number of notifications in one status, e.g. for campaign progress.
+ */
+public interface StatusCountView {
+    NotificationStatus getStatus();
+
+    long getCount();
+}
@@ -0,0 +1,16 @@
+package scm.notification.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Keyset-scan projection for the stuck-notification scanner: just enough to
+ * decide the retry and to advance the (updated_at, id) cursor.
+ */
+public interface StuckNotificationView {
+    UUID getId();
+
+    int getRetryCount();
+
+    LocalDateTime getUpdatedAt();
+}
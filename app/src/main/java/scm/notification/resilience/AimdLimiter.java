@@ -0,0 +1,151 @@
+package scm.notification.resilience;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive concurrency limit using additive-increase / multiplicative-decrease.
+ *
+ * Each completed call is a sample. A call that failed or took longer than the
+ * latency threshold multiplies the limit by the backoff ratio; any other call
+ * adds 1/limit, i.e. roughly +1 per limit's worth of successful calls. Only
+ * one decrease is applied per round trip: samples that started before the
+ * last decrease describe the old limit and are ignored, so a burst of slow
+ * calls does not collapse the limit to the minimum at once. The limit only
+ * grows while it is actually being used.
+ *
+ * Slots can also be reserved ahead of a call (by the dispatcher when it claims
+ * rows), so capacity that is already promised is not handed out twice.
+ */
+final class AimdLimiter {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight;
+    private int reserved;
+    private long lastDecreaseNanos = System.nanoTime();
+
+    AimdLimiter(int minLimit, int maxLimit, long latencyThresholdNanos, double backoffRatio) {
+        this.minLimit = Math.max(1, Math.min(minLimit, maxLimit));
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = maxLimit;
+    }
+
+    /**
+     * Takes a slot if one is free; never waits.
+     */
+    boolean tryAcquire() {
+        lock.lock();
+        try {
+            if (inFlight + reserved >= (int) limit) {
+                return false;
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reserves up to {@code wanted} free slots for later calls.
+     *
+     * @return the number of slots reserved
+     */
+    int reserve(int wanted) {
+        lock.lock();
+        try {
+            int granted = Math.max(0, Math.min(wanted, (int) limit - inFlight - reserved));
+            reserved += granted;
+            return granted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives back reserved slots that will not be used.
+     */
+    void cancel(int count) {
+        lock.lock();
+        try {
+            reserved = Math.max(0, reserved - count);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Turns a reserved slot into a call in flight. The slot was free when it
+     * was reserved, so this succeeds even if the limit has shrunk since.
+     */
+    void acquireReserved() {
+        lock.lock();
+        try {
+            reserved = Math.max(0, reserved - 1);
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Slots currently neither in use nor reserved.
+     */
+    int available() {
+        lock.lock();
+        try {
+            return Math.max(0, (int) limit - inFlight - reserved);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases a slot and feeds the call's outcome into the limit.
+     *
+     * @param startNanos {@link System#nanoTime()} when the call started
+     * @param dropped    true if the call failed in a way that signals overload
+     */
+    void release(long startNanos, boolean dropped) {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            inFlight--;
+            if (dropped || now - startNanos > latencyThresholdNanos) {
+                if (startNanos - lastDecreaseNanos > 0) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecreaseNanos = now;
+                }
+            } else if (inFlight + 1 >= limit / 2) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package scm.notification.resilience;
+
+import scm.notification.config.DeliveryProperties;
+import scm.notification.enums.FailureClass;
+import scm.notification.enums.NotificationChannel;
+import scm.notification.exception.BulkheadFullException;
+import scm.notification.exception.CircuitOpenException;
+import scm.notification.service.FailureClassifier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Per-channel protection around provider calls: a circuit breaker followed by
+ * an adaptive (AIMD) concurrency limit.
+ *
+ * Each channel has its own breaker and limit, so a browning-out channel
+ * (typically SMTP) only ties up its own share of delivery capacity. Rising
+ * latency or transient errors shrink the channel's in-flight limit; a high
+ * failure rate opens the breaker, after which calls are rejected up front
+ * instead of each waiting out the provider timeout. Permanent failures (bad
+ * address, 5xx reply) say nothing about provider health and count as
+ * successful calls.
+ *
+ * Admission never waits: a call that finds its channel at the limit is
+ * rejected and deferred, so deliveries for a slow channel cannot park the
+ * lane workers that other channels of the same priority need. The dispatcher
+ * reserves slots when it claims rows and runs the deliveries on them, so rows
+ * are only claimed for capacity that is actually free.
+ */
+@Component
+@Slf4j
+public class ChannelGuard {
+
+    private final Map<NotificationChannel, CircuitBreaker> breakers = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationChannel, AimdLimiter> limiters = new EnumMap<>(NotificationChannel.class);
+    private final FailureClassifier failureClassifier;
+    private final long deferralDelayMs;
+
+    public ChannelGuard(DeliveryProperties properties, FailureClassifier failureClassifier) {
+        this.failureClassifier = failureClassifier;
+        this.deferralDelayMs = properties.getDeferralDelay().toMillis();
+
+        DeliveryProperties.CircuitBreaker breaker = properties.getCircuitBreaker();
+        DeliveryProperties.AdaptiveLimit adaptive = properties.getAdaptiveLimit();
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            int maxLimit = properties.concurrencyFor(channel);
+            breakers.put(channel, new CircuitBreaker(breaker.getSlidingWindowSize(), breaker.getMinimumCalls(),
+                    breaker.getFailureRateThreshold(), breaker.getOpenDuration(), breaker.getHalfOpenProbeCalls()));
+            limiters.put(channel, adaptive.isEnabled()
+                    ? new AimdLimiter(adaptive.getMinLimit(), maxLimit, adaptive.getLatencyThreshold().toNanos(),
+                            adaptive.getBackoffRatio())
+                    : new AimdLimiter(maxLimit, maxLimit, Long.MAX_VALUE, 1.0));
+            log.info("Channel {} allows up to {} concurrent deliveries (adaptive: {})", channel, maxLimit,
+                    adaptive.isEnabled());
+        }
+    }
+
+    /**
+     * Runs the provider call under the channel's breaker and concurrency limit.
+     *
+     * @throws CircuitOpenException  if the breaker rejected the call
+     * @throws BulkheadFullException if the channel is at its concurrency limit
+     */
+    public void execute(NotificationChannel channel, Runnable task) {
+        run(channel, false, task);
+    }
+
+    /**
+     * Runs the provider call on a slot taken earlier with {@link #reserve}. The
+     * reservation is used up either way, also when the breaker rejects the call.
+     *
+     * @throws CircuitOpenException if the breaker rejected the call
+     */
+    public void executeReserved(NotificationChannel channel, Runnable task) {
+        run(channel, true, task);
+    }
+
+    /**
+     * Reserves up to {@code wanted} concurrency slots of the channel, none if
+     * its breaker is open. Each slot must later be used by
+     * {@link #executeReserved} or given back with {@link #cancelReserved}.
+     *
+     * @return the number of slots reserved
+     */
+    public int reserve(NotificationChannel channel, int wanted) {
+        if (breakers.get(channel).retryAt().isAfter(Instant.now())) {
+            return 0;
+        }
+        return limiters.get(channel).reserve(wanted);
+    }
+
+    public void cancelReserved(NotificationChannel channel, int count) {
+        if (count > 0) {
+            limiters.get(channel).cancel(count);
+        }
+    }
+
+    private void run(NotificationChannel channel, boolean reserved, Runnable task) {
+        CircuitBreaker breaker = breakers.get(channel);
+        AimdLimiter limiter = limiters.get(channel);
+
+        CircuitBreaker.Permit permit = breaker.tryAcquire();
+        if (permit == null) {
+            if (reserved) {
+                limiter.cancel(1);
+            }
+            throw new CircuitOpenException(channel, breaker.retryAt());
+        }
+        if (reserved) {
+            limiter.acquireReserved();
+        } else if (!limiter.tryAcquire()) {
+            breaker.release(permit);
+            throw new BulkheadFullException(channel, Instant.now().plusMillis(deferralDelayMs));
+        }
+
+        long start = System.nanoTime();
+        boolean healthy = false;
+        try {
+            task.run();
+            healthy = true;
+        } catch (RuntimeException e) {
+            healthy = failureClassifier.classify(e) == FailureClass.PERMANENT;
+            throw e;
+        } finally {
+            limiter.release(start, !healthy);
+            CircuitBreaker.State before = breaker.state();
+            if (healthy) {
+                breaker.onSuccess(permit);
+            } else {
+                breaker.onFailure(permit);
+            }
+            logTransition(channel, before, breaker.state());
+        }
+    }
+
+    /**
+     * Free concurrency slots of the channels whose breaker currently lets
+     * calls through, leaving out channels at their limit; the dispatcher only
+     * claims rows of these channels, per channel no more than it could
+     * {@link #reserve}, and leaves the others parked in the table.
+     */
+    public Map<NotificationChannel, Integer> availableSlots() {
+        Map<NotificationChannel, Integer> available = new EnumMap<>(NotificationChannel.class);
+        breakers.forEach((channel, breaker) -> {
+            int slots = limiters.get(channel).available();
+            if (slots > 0 && !breaker.retryAt().isAfter(Instant.now())) {
+                available.put(channel, slots);
+            }
+        });
+        return available;
+    }
+
+    public String breakerState(NotificationChannel channel) {
+        return breakers.get(channel).state().name();
+    }
+
+    public int currentLimit(NotificationChannel channel) {
+        return limiters.get(channel).limit();
+    }
+
+    public int inFlight(NotificationChannel channel) {
+        return limiters.get(channel).inFlight();
+    }
+
+    private void logTransition(NotificationChannel channel, CircuitBreaker.State before, CircuitBreaker.State after) {
+        if (before == after) {
+            return;
+        }
+        if (after == CircuitBreaker.State.OPEN) {
+            log.warn("[CIRCUIT BREAKER] Channel {} circuit opened ({} -> {}), deliveries parked", channel, before,
+                    after);
+        } else {
+            log.info("[CIRCUIT BREAKER] Channel {} circuit {} -> {}", channel, before, after);
+        }
+    }
+}
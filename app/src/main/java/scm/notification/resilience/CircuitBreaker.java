@@ -0,0 +1,161 @@
+package scm.notification.resilience;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Count-based circuit breaker for a single channel.
+ *
+ * CLOSED: calls pass and outcomes are recorded in a sliding window of the
+ * last {@code windowSize} calls; once at least {@code minimumCalls} are
+ * recorded and the failure rate reaches the threshold the breaker opens.
+ * OPEN: calls are rejected until {@code openDuration} has passed.
+ * HALF_OPEN: up to {@code probeCalls} trial calls are let through; if they all
+ * succeed the breaker closes, any failure opens it again.
+ *
+ * Every state change starts a new generation, and a call's permit records the
+ * generation it was admitted in. Outcomes of calls from an earlier generation
+ * (e.g. a slow call admitted while CLOSED that returns after the breaker went
+ * HALF_OPEN) are ignored, so only real probes decide whether it closes.
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Admission of one call, valid for the generation it was issued in.
+     */
+    record Permit(long generation) {
+    }
+
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationMs;
+    private final int probeCalls;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private int position;
+    private int recorded;
+    private int failures;
+    private long openUntilMs;
+    private int probesInFlight;
+    private int probesSucceeded;
+
+    CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, Duration openDuration,
+            int probeCalls) {
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationMs = openDuration.toMillis();
+        this.probeCalls = probeCalls;
+    }
+
+    /**
+     * @return the permit if the call may proceed, else null; the caller must
+     *         then report exactly one of {@link #onSuccess(Permit)},
+     *         {@link #onFailure(Permit)} or {@link #release(Permit)}
+     */
+    synchronized Permit tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() < openUntilMs) {
+                return null;
+            }
+            state = State.HALF_OPEN;
+            generation++;
+            probesInFlight = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight + probesSucceeded >= probeCalls) {
+                return null;
+            }
+            probesInFlight++;
+        }
+        return new Permit(generation);
+    }
+
+    synchronized void onSuccess(Permit permit) {
+        if (permit.generation() != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            probesInFlight--;
+            if (++probesSucceeded >= probeCalls) {
+                close();
+            }
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    synchronized void onFailure(Permit permit) {
+        if (permit.generation() != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failures >= failureRateThreshold * recorded) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * Gives back a permission for a call that was never made.
+     */
+    synchronized void release(Permit permit) {
+        if (permit.generation() == generation && state == State.HALF_OPEN) {
+            probesInFlight--;
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    /**
+     * Earliest time a call may be let through again.
+     */
+    synchronized Instant retryAt() {
+        return state == State.OPEN ? Instant.ofEpochMilli(openUntilMs) : Instant.now();
+    }
+
+    private void record(boolean failed) {
+        if (recorded == window.length) {
+            if (window[position]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[position] = failed;
+        if (failed) {
+            failures++;
+        }
+        position = (position + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        generation++;
+        openUntilMs = System.currentTimeMillis() + openDurationMs;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        generation++;
+        position = 0;
+        recorded = 0;
+        failures = 0;
+    }
+}
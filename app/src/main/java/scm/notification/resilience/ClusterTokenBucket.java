@@ -0,0 +1,78 @@
+package scm.notification.resilience;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket whose budget is shared by all replicas through the database.
+ *
+ * Tokens are leased from the shared row in small batches and spent locally, so
+ * most acquisitions cost no round trip. A lease is only valid for a short TTL;
+ * leftovers are dropped rather than spent late, which would let a replica that
+ * went quiet exceed the shared rate when traffic returns. A ReentrantLock
+ * rather than synchronized guards the lease, so a virtual thread waiting on
+ * the database round trip does not pin its carrier thread.
+ */
+final class ClusterTokenBucket implements TokenBucket {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final SharedBucketStore store;
+    private final String bucketKey;
+    private final double ratePerSecond;
+    private final int burst;
+    private final int leaseSize;
+    private final long leaseTtlNanos;
+
+    private int leased;
+    private long leaseExpiresAtNanos = System.nanoTime();
+    private long nextLeaseAtNanos = System.nanoTime();
+
+    ClusterTokenBucket(SharedBucketStore store, String bucketKey, double ratePerSecond, int burst, int leaseSize,
+            long leaseTtlNanos) {
+        this.store = store;
+        this.bucketKey = bucketKey;
+        this.ratePerSecond = ratePerSecond;
+        this.burst = Math.max(1, burst);
+        this.leaseSize = Math.max(1, leaseSize);
+        this.leaseTtlNanos = leaseTtlNanos;
+    }
+
+    @Override
+    public long tryAcquire() {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            if (leased > 0 && now - leaseExpiresAtNanos < 0) {
+                leased--;
+                return 0;
+            }
+            leased = 0;
+            // The shared bucket was empty a moment ago; don't ask again before a token can exist
+            if (now - nextLeaseAtNanos < 0) {
+                return nextLeaseAtNanos - now;
+            }
+
+            SharedBucketStore.Lease lease = store.lease(bucketKey, ratePerSecond, burst, leaseSize);
+            if (lease.granted() == 0) {
+                nextLeaseAtNanos = now + lease.waitNanos();
+                return Math.max(1, lease.waitNanos());
+            }
+            leased = lease.granted() - 1;
+            leaseExpiresAtNanos = now + leaseTtlNanos;
+            return 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void refund() {
+        lock.lock();
+        try {
+            if (System.nanoTime() - leaseExpiresAtNanos < 0) {
+                leased++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package scm.notification.resilience;
+
+import scm.notification.config.RateLimitProperties;
+import scm.notification.entity.Notification;
+import scm.notification.enums.NotificationChannel;
+import scm.notification.exception.RateLimitedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paces sends with token buckets per channel and per recipient domain.
+ *
+ * A send needs a token from its channel's bucket (e.g. the SMTP relay's cap)
+ * and, for configured domains such as gmail.com, from the domain's bucket.
+ * Permits are never waited for: when a bucket is empty the delivery is
+ * deferred to when a token is expected (plus jitter) and the worker thread
+ * moves on. In CLUSTER mode the buckets live in the database and all replicas
+ * draw from the same budget.
+ */
+@Component
+@Slf4j
+public class DeliveryRateLimiter {
+
+    private final Map<NotificationChannel, TokenBucket> channelBuckets = new EnumMap<>(NotificationChannel.class);
+    private final Map<String, TokenBucket> domainBuckets = new HashMap<>();
+    private final boolean enabled;
+    private final long deferralJitterNanos;
+
+    public DeliveryRateLimiter(RateLimitProperties properties, SharedBucketStore sharedStore) {
+        this.enabled = properties.isEnabled();
+        this.deferralJitterNanos = properties.getDeferralJitter().toNanos();
+
+        properties.getChannels().forEach((channel, bucket) -> {
+            TokenBucket tokenBucket = createBucket(properties, sharedStore, "channel:" + channel, bucket);
+            if (tokenBucket != null) {
+                channelBuckets.put(channel, tokenBucket);
+            }
+        });
+        properties.getDomains().forEach((domain, bucket) -> {
+            String normalized = domain.toLowerCase(Locale.ROOT);
+            TokenBucket tokenBucket = createBucket(properties, sharedStore, "domain:" + normalized, bucket);
+            if (tokenBucket != null) {
+                domainBuckets.put(normalized, tokenBucket);
+            }
+        });
+        if (enabled) {
+            log.info("Rate limiting ({} mode): channels {}, domains {}", properties.getMode(),
+                    channelBuckets.keySet(), domainBuckets.keySet());
+        }
+    }
+
+    /**
+     * Takes the send permits for the notification.
+     *
+     * @throws RateLimitedException if a permit is not available yet
+     */
+    public void acquire(Notification notification) {
+        if (!enabled) {
+            return;
+        }
+
+        TokenBucket channelBucket = channelBuckets.get(notification.getChannel());
+        if (channelBucket != null) {
+            long waitNanos = channelBucket.tryAcquire();
+            if (waitNanos > 0) {
+                throw new RateLimitedException("channel " + notification.getChannel(), deferUntil(waitNanos));
+            }
+        }
+
+        String domain = recipientDomain(notification.getRecipient());
+        TokenBucket domainBucket = domain != null ? domainBuckets.get(domain) : null;
+        if (domainBucket != null) {
+            long waitNanos = domainBucket.tryAcquire();
+            if (waitNanos > 0) {
+                // The send is not happening now, so the channel token goes back
+                if (channelBucket != null) {
+                    channelBucket.refund();
+                }
+                throw new RateLimitedException("domain " + domain, deferUntil(waitNanos));
+            }
+        }
+    }
+
+    /**
+     * Returns the permits taken by {@link #acquire(Notification)} for a send
+     * that did not happen after all (e.g. the channel guard rejected it), so
+     * deferred deliveries do not use up the rate budget.
+     */
+    public void refund(Notification notification) {
+        if (!enabled) {
+            return;
+        }
+        TokenBucket channelBucket = channelBuckets.get(notification.getChannel());
+        if (channelBucket != null) {
+            channelBucket.refund();
+        }
+        String domain = recipientDomain(notification.getRecipient());
+        TokenBucket domainBucket = domain != null ? domainBuckets.get(domain) : null;
+        if (domainBucket != null) {
+            domainBucket.refund();
+        }
+    }
+
+    private Instant deferUntil(long waitNanos) {
+        long jitter = deferralJitterNanos > 0 ? ThreadLocalRandom.current().nextLong(deferralJitterNanos) : 0;
+        return Instant.now().plusNanos(waitNanos + jitter);
+    }
+
+    private static String recipientDomain(String recipient) {
+        if (recipient == null) {
+            return null;
+        }
+        int at = recipient.lastIndexOf('@');
+        return at >= 0 && at < recipient.length() - 1 ? recipient.substring(at + 1).toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static TokenBucket createBucket(RateLimitProperties properties, SharedBucketStore sharedStore,
+            String key, RateLimitProperties.Bucket bucket) {
+        if (bucket.getRatePerSecond() <= 0) {
+            log.warn("Ignoring rate limit bucket {} with non-positive rate {}", key, bucket.getRatePerSecond());
+            return null;
+        }
+        if (properties.getMode() == RateLimitProperties.Mode.CLUSTER) {
+            return new ClusterTokenBucket(sharedStore, key, bucket.getRatePerSecond(), bucket.getBurst(),
+                    properties.getClusterLeaseSize(),
+                    TimeUnit.MILLISECONDS.toNanos(properties.getClusterLeaseTtl().toMillis()));
+        }
+        return new LocalTokenBucket(bucket.getRatePerSecond(), bucket.getBurst());
+    }
+}
@@ -0,0 +1,36 @@
+package scm.notification.resilience;
+
+/**
+ * In-process token bucket refilled continuously at a fixed rate.
+ */
+final class LocalTokenBucket implements TokenBucket {
+
+    private final double tokensPerNano;
+    private final double capacity;
+
+    private double tokens;
+    private long refilledAtNanos = System.nanoTime();
+
+    LocalTokenBucket(double ratePerSecond, int burst) {
+        this.tokensPerNano = ratePerSecond / 1_000_000_000d;
+        this.capacity = Math.max(1, burst);
+        this.tokens = capacity;
+    }
+
+    @Override
+    public synchronized long tryAcquire() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refilledAtNanos) * tokensPerNano);
+        refilledAtNanos = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano));
+    }
+
+    @Override
+    public synchronized void refund() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+}
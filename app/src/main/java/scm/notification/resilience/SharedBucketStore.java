@@ -0,0 +1,74 @@
+package scm.notification.resilience;
+
+import scm.notification.entity.RateLimitBucket;
+import scm.notification.repository.RateLimitBucketRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Refills and leases tokens from the shared rate_limit_buckets rows.
+ *
+ * Each lease is its own short transaction (REQUIRES_NEW, so a caller's delivery
+ * transaction never holds the bucket row lock while it talks to the provider):
+ * lock the row, refill it for the time elapsed since the last refill, take up
+ * to the requested number of whole tokens. A bucket this replica has not seen
+ * yet is first created idempotently, so replicas starting together never race
+ * on the missing row.
+ */
+@Component
+@Slf4j
+public class SharedBucketStore {
+
+    record Lease(int granted, long waitNanos) {
+    }
+
+    private final RateLimitBucketRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    // Buckets whose row is known to exist; the others are created before they are locked
+    private final Set<String> existing = ConcurrentHashMap.newKeySet();
+
+    public SharedBucketStore(RateLimitBucketRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @SuppressWarnings("null")
+    Lease lease(String bucketKey, double ratePerSecond, int burst, int maxTokens) {
+        Lease lease = transactionTemplate.execute(
+                tx -> leaseInTransaction(bucketKey, ratePerSecond, burst, maxTokens));
+        existing.add(bucketKey);
+        return lease;
+    }
+
+    private Lease leaseInTransaction(String bucketKey, double ratePerSecond, int burst, int maxTokens) {
+        long now = System.currentTimeMillis();
+        if (!existing.contains(bucketKey)) {
+            log.debug("Creating rate limit bucket {} if absent", bucketKey);
+            repository.createIfAbsent(bucketKey, burst, now);
+        }
+        RateLimitBucket bucket = repository.lockByKey(bucketKey).orElse(null);
+        if (bucket == null) {
+            // Deleted since this replica last saw it; the next lease creates it again
+            existing.remove(bucketKey);
+            throw new IllegalStateException("Rate limit bucket " + bucketKey + " disappeared");
+        }
+        // Replica clocks can disagree slightly; never refill for negative elapsed time
+        long elapsedMs = Math.max(0, now - bucket.getRefilledAt());
+        bucket.setTokens(Math.min(burst, bucket.getTokens() + elapsedMs * ratePerSecond / 1000d));
+        bucket.setRefilledAt(Math.max(now, bucket.getRefilledAt()));
+
+        int granted = (int) Math.min(maxTokens, Math.floor(bucket.getTokens()));
+        bucket.setTokens(bucket.getTokens() - granted);
+        repository.saveAndFlush(bucket);
+
+        long waitNanos = granted > 0 ? 0 : (long) Math.ceil((1 - bucket.getTokens()) / ratePerSecond * 1_000_000_000d);
+        return new Lease(granted, Math.max(0, waitNanos));
+    }
+}
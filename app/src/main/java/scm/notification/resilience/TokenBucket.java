@@ -0,0 +1,21 @@
+package scm.notification.resilience;
+
+/**
+ * Non-blocking token bucket: callers never wait for a token, they are told how
+ * long until one is available and defer the work instead.
+ */
+interface TokenBucket {
+
+    /**
+     * Takes one token if available.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until the next
+     *         token is expected
+     */
+    long tryAcquire();
+
+    /**
+     * Returns a token taken by {@link #tryAcquire()} that ended up unused.
+     */
+    void refund();
+}
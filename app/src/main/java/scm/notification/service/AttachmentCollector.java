@@ -0,0 +1,112 @@
+package scm.notification.service;
+
+import scm.notification.repository.NotificationRepository;
+import scm.notification.storage.AttachmentStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Deletes attachment blobs that no notification refers to any more.
+ *
+ * Blobs are written at ingest, before their notification is inserted, so a
+ * rolled back insert or a duplicate request leaves a blob behind; archive
+ * purges drop the last reference to others. A periodic mark-and-sweep lists
+ * the blobs in the store, looks their keys up in notification_attachments and
+ * notification_attachments_archive in batches, and deletes the ones neither
+ * table references. Blobs stored within the grace period are left alone: their
+ * notification may not have committed yet. Storing existing content refreshes
+ * its stored time, so a blob being reused is never swept from under the new
+ * notification.
+ */
+@Component
+@Slf4j
+public class AttachmentCollector {
+
+    private final AttachmentStore attachmentStore;
+    private final NotificationRepository repository;
+    private final boolean enabled;
+    private final Duration gracePeriod;
+    private final int batchSize;
+
+    public AttachmentCollector(AttachmentStore attachmentStore, NotificationRepository repository,
+            @Value("${notification.attachments.gc.enabled:true}") boolean enabled,
+            @Value("${notification.attachments.gc.grace-period-ms:3600000}") long gracePeriodMs,
+            @Value("${notification.attachments.gc.batch-size:500}") int batchSize) {
+        this.attachmentStore = attachmentStore;
+        this.repository = repository;
+        this.enabled = enabled;
+        this.gracePeriod = Duration.ofMillis(gracePeriodMs);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${notification.attachments.gc.initial-delay-ms:600000}",
+            fixedDelayString = "${notification.attachments.gc.interval-ms:21600000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(gracePeriod);
+        List<String> batch = new ArrayList<>(batchSize);
+        long[] deleted = new long[1];
+        try {
+            attachmentStore.forEachStoredBefore(cutoff, hash -> {
+                batch.add(hash);
+                if (batch.size() == batchSize) {
+                    deleted[0] += deleteUnreferenced(batch, cutoff);
+                    batch.clear();
+                }
+            });
+            deleted[0] += deleteUnreferenced(batch, cutoff);
+        } catch (IOException | UncheckedIOException e) {
+            log.error("[ATTACHMENT GC] Sweep aborted after deleting {} blobs: {}", deleted[0], e.getMessage());
+            return;
+        }
+        if (deleted[0] > 0) {
+            log.info("[ATTACHMENT GC] Deleted {} unreferenced attachment blobs", deleted[0]);
+        }
+    }
+
+    /**
+     * Deletes those of the blobs that no live or archived notification refers
+     * to any more, e.g. after their last references were purged. Blobs stored
+     * within the grace period are kept.
+     *
+     * @return the number of blobs deleted
+     */
+    public int deleteUnreferenced(Collection<String> hashes) {
+        return deleteUnreferenced(hashes, Instant.now().minus(gracePeriod));
+    }
+
+    private int deleteUnreferenced(Collection<String> hashes, Instant cutoff) {
+        if (hashes.isEmpty()) {
+            return 0;
+        }
+        Set<String> referenced = new HashSet<>(repository.findReferencedAttachments(hashes));
+        int deleted = 0;
+        for (String hash : hashes) {
+            if (referenced.contains(hash)) {
+                continue;
+            }
+            try {
+                if (attachmentStore.deleteIfStoredBefore(hash, cutoff)) {
+                    deleted++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot delete attachment blob " + hash, e);
+            }
+        }
+        return deleted;
+    }
+}
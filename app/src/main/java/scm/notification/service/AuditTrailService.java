@@ -0,0 +1,185 @@
+package scm.notification.service;
+
+import scm.notification.repository.AuditEntryView;
+import scm.notification.repository.NotificationArchiveRepository;
+import scm.notification.repository.NotificationAuditLogRepository;
+import scm.notification.repository.NotificationRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Read access to the audit trail for support investigations.
+ *
+ * Results are paged with keyset cursors on (timestamp, id), so every page is an
+ * index range scan no matter how deep it is, and streamed as JSON: the rows of
+ * a response are fetched page-size at a time and written out before the next
+ * page is read, so memory use does not depend on the requested limit.
+ *
+ * Response body: {@code {"entries": [...], "nextCursor": "..."}}, where
+ * nextCursor is null once there is nothing more to read.
+ */
+@Service
+@Slf4j
+public class AuditTrailService {
+
+    private static final LocalDateTime KEYSET_START_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID KEYSET_START_ID = new UUID(0L, 0L);
+
+    private final NotificationRepository repository;
+    private final NotificationArchiveRepository archiveRepository;
+    private final NotificationAuditLogRepository auditLogRepository;
+    private final ObjectMapper objectMapper;
+    private final int pageSize;
+    private final int maxLimit;
+
+    public AuditTrailService(NotificationRepository repository, NotificationArchiveRepository archiveRepository,
+            NotificationAuditLogRepository auditLogRepository, ObjectMapper objectMapper,
+            @Value("${notification.audit.query.page-size:500}") int pageSize,
+            @Value("${notification.audit.query.max-limit:10000}") int maxLimit) {
+        this.repository = repository;
+        this.archiveRepository = archiveRepository;
+        this.auditLogRepository = auditLogRepository;
+        this.objectMapper = objectMapper;
+        this.pageSize = pageSize;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Streams a notification's audit entries in the order they were recorded,
+     * from the archive if the notification has been archived.
+     */
+    public StreamingResponseBody notificationTrail(String id, String cursor, int limit) {
+        UUID notificationId = UUID.fromString(id);
+        checkLimit(limit);
+        Cursor start = Cursor.decode(cursor);
+
+        PageSource source;
+        if (repository.existsById(notificationId)) {
+            source = (after, size) -> auditLogRepository.findTrailPage(notificationId, after.timestamp(), after.id(),
+                    PageRequest.of(0, size));
+        } else if (archiveRepository.existsById(notificationId)) {
+            source = (after, size) -> archiveRepository.findTrailPage(notificationId, after.timestamp(), after.id(),
+                    PageRequest.of(0, size));
+        } else {
+            throw new IllegalArgumentException("Notification not found with ID: " + id);
+        }
+        return out -> stream(out, source, start, limit);
+    }
+
+    /**
+     * Streams the audit entries recorded in [from, to) across all
+     * notifications, optionally restricted to one status (e.g. FAILED).
+     * Searches the live table only; entries of archived notifications are
+     * reachable through their notification.
+     */
+    public StreamingResponseBody search(LocalDateTime from, LocalDateTime to, String status, String cursor,
+            int limit) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        if (!from.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        checkLimit(limit);
+        Cursor start = Cursor.decode(cursor);
+        String statusFilter = status != null && !status.isBlank() ? status : null;
+
+        PageSource source = (after, size) -> auditLogRepository.findRangePage(from, end, statusFilter,
+                after.timestamp(), after.id(), PageRequest.of(0, size));
+        return out -> stream(out, source, start, limit);
+    }
+
+    private void checkLimit(int limit) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxLimit);
+        }
+    }
+
+    private void stream(OutputStream out, PageSource source, Cursor start, int limit) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("entries");
+
+            Cursor after = start;
+            int written = 0;
+            boolean more = true;
+            while (written < limit && more) {
+                int size = Math.min(pageSize, limit - written);
+                List<AuditEntryView> page = source.next(after, size);
+                for (AuditEntryView entry : page) {
+                    write(json, entry);
+                }
+                written += page.size();
+                more = page.size() == size;
+                if (!page.isEmpty()) {
+                    AuditEntryView last = page.get(page.size() - 1);
+                    after = new Cursor(last.getTimestamp(), last.getId());
+                }
+                json.flush();
+            }
+
+            json.writeEndArray();
+            // A response that ended on a full page may have more entries after it
+            json.writeStringField("nextCursor", more ? after.encode() : null);
+            json.writeEndObject();
+        } catch (IOException | RuntimeException e) {
+            // Headers are gone by now; the client sees a truncated body
+            log.warn("Audit trail response aborted: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    private static void write(JsonGenerator json, AuditEntryView entry) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("id", entry.getId().toString());
+        json.writeStringField("notificationId", entry.getNotificationId().toString());
+        json.writeStringField("status", entry.getStatus());
+        json.writeStringField("details", entry.getDetails());
+        json.writeStringField("timestamp", entry.getTimestamp().toString());
+        json.writeEndObject();
+    }
+
+    @FunctionalInterface
+    private interface PageSource {
+        List<AuditEntryView> next(Cursor after, int size);
+    }
+
+    /**
+     * Keyset position: the (timestamp, id) of the last entry returned, as an
+     * opaque URL-safe token.
+     */
+    private record Cursor(LocalDateTime timestamp, UUID id) {
+
+        static Cursor decode(String token) {
+            if (token == null || token.isBlank()) {
+                return new Cursor(KEYSET_START_TIME, KEYSET_START_ID);
+            }
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = decoded.indexOf('|');
+                return new Cursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                        UUID.fromString(decoded.substring(separator + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((timestamp + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package scm.notification.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Pull parser for campaign recipient files, one record per line, so an upload
+ * is never held in memory.
+ *
+ * CSV: the recipient is the column headed recipient, email, phone or token,
+ * or the first column when the file has no such header. NDJSON: the
+ * {@code recipient} field of each object.
+ */
+final class CampaignRecipientReader implements Closeable {
+
+    enum Format {
+        CSV,
+        NDJSON;
+
+        static Format detect(String filename, String contentType) {
+            String name = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+            String type = contentType != null ? contentType.toLowerCase(Locale.ROOT) : "";
+            if (name.endsWith(".ndjson") || name.endsWith(".jsonl") || type.contains("ndjson")
+                    || type.contains("jsonl")) {
+                return NDJSON;
+            }
+            if (name.endsWith(".csv") || name.endsWith(".txt") || type.startsWith("text/")) {
+                return CSV;
+            }
+            throw new IllegalArgumentException("Recipient file must be CSV (.csv) or NDJSON (.ndjson, .jsonl)");
+        }
+    }
+
+    private static final Set<String> RECIPIENT_HEADERS = Set.of("recipient", "email", "phone", "token");
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final ObjectMapper objectMapper;
+    private int recipientColumn = 0;
+    private boolean firstRecord = true;
+
+    CampaignRecipientReader(InputStream input, Format format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the recipient of the next record, an empty string for a record
+     * without a usable recipient, or null at the end of the file.
+     */
+    String next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.NDJSON) {
+                return recipientFromJson(line);
+            }
+            List<String> fields = splitCsv(line);
+            if (firstRecord) {
+                firstRecord = false;
+                if (isHeader(fields)) {
+                    continue;
+                }
+            }
+            return recipientColumn < fields.size() ? fields.get(recipientColumn).trim() : "";
+        }
+        return null;
+    }
+
+    private String recipientFromJson(String line) {
+        try {
+            return objectMapper.readTree(line).path("recipient").asText("").trim();
+        } catch (JsonProcessingException e) {
+            return "";
+        }
+    }
+
+    private boolean isHeader(List<String> fields) {
+        for (int i = 0; i < fields.size(); i++) {
+            if (RECIPIENT_HEADERS.contains(fields.get(i).trim().toLowerCase(Locale.ROOT))) {
+                recipientColumn = i;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // RFC 4180 fields: commas inside double quotes, "" as an escaped quote
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,50 @@
+package scm.notification.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * SHA-256 over everything that ends up in an email besides the recipient:
+ * subject, content and attachment references. Email notifications with equal
+ * fingerprints can share one multi-recipient message.
+ */
+final class ContentFingerprint {
+
+    private ContentFingerprint() {
+    }
+
+    static String of(String subject, String content, Map<String, String> attachments) {
+        MessageDigest digest = sha256();
+        update(digest, String.valueOf(subject));
+        update(digest, String.valueOf(content));
+        if (attachments != null) {
+            for (Map.Entry<String, String> entry : new TreeMap<>(attachments).entrySet()) {
+                update(digest, entry.getKey());
+                update(digest, entry.getValue());
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Length-prefixed so that ("ab", "c") and ("a", "bc") never collide
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
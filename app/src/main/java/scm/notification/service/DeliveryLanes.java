@@ -0,0 +1,192 @@
+package scm.notification.service;
+
+import scm.notification.config.DeliveryProperties;
+import scm.notification.enums.NotificationPriority;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Per-priority delivery executors.
+ *
+ * Every priority gets its own bounded pool and queue, so a CRITICAL OTP never
+ * waits behind a draining BULK backlog: the capacity of the CRITICAL lane is
+ * reserved for it.
+ *
+ * With virtual threads enabled a lane has no worker pool: every delivery gets
+ * its own virtual thread, and a semaphore of concurrency + queue-capacity
+ * permits bounds how many deliveries the lane holds at once. A delivery
+ * blocked on I/O then no longer occupies one of a fixed number of workers;
+ * provider calls are bounded by the per-channel limits in ChannelGuard.
+ *
+ * Each lane exports its active worker count, queue depth and the time
+ * deliveries spend queued before a worker picks them up.
+ */
+@Slf4j
+public class DeliveryLanes implements DisposableBean {
+
+    private final Map<NotificationPriority, ThreadPoolTaskExecutor> executors =
+            new EnumMap<>(NotificationPriority.class);
+    private final Map<NotificationPriority, VirtualLane> virtualLanes = new EnumMap<>(NotificationPriority.class);
+    private final Map<NotificationPriority, Timer> queueWait = new EnumMap<>(NotificationPriority.class);
+
+    public DeliveryLanes(DeliveryProperties properties, MeterRegistry registry) {
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            DeliveryProperties.Lane lane = properties.laneFor(priority);
+            registerQueueWait(priority, registry);
+            if (properties.isVirtualThreads()) {
+                VirtualLane virtualLane = new VirtualLane("notification-" + priority.name().toLowerCase() + "-",
+                        lane.getConcurrency() + lane.getQueueCapacity());
+                virtualLanes.put(priority, virtualLane);
+                registerGauges(priority, virtualLane, VirtualLane::active, l -> 0, registry);
+                log.info("Delivery lane {}: virtual threads, up to {} deliveries", priority, virtualLane.capacity);
+                continue;
+            }
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(lane.getConcurrency());
+            executor.setMaxPoolSize(lane.getConcurrency());
+            executor.setQueueCapacity(lane.getQueueCapacity());
+            executor.setThreadNamePrefix("notification-" + priority.name().toLowerCase() + "-");
+            executor.setKeepAliveSeconds(60);
+            executor.setAllowCoreThreadTimeOut(true);
+            executor.setWaitForTasksToCompleteOnShutdown(true);
+            executor.setAwaitTerminationSeconds(30);
+            executor.initialize();
+            executors.put(priority, executor);
+            registerGauges(priority, executor.getThreadPoolExecutor(), ThreadPoolExecutor::getActiveCount,
+                    p -> p.getQueue().size(), registry);
+            log.info("Delivery lane {}: {} workers, queue {}", priority, lane.getConcurrency(),
+                    lane.getQueueCapacity());
+        }
+    }
+
+    /**
+     * Queues the delivery on its priority's lane.
+     *
+     * @throws TaskRejectedException if the lane is full
+     */
+    public void submit(NotificationPriority priority, Runnable delivery) {
+        Timer wait = queueWait.get(priority);
+        long queuedAt = System.nanoTime();
+        Runnable timed = () -> {
+            wait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+            delivery.run();
+        };
+        VirtualLane virtualLane = virtualLanes.get(priority);
+        if (virtualLane != null) {
+            virtualLane.execute(priority, timed);
+        } else {
+            executors.get(priority).execute(timed);
+        }
+    }
+
+    /**
+     * Deliveries the lane can still take without rejecting (idle workers plus
+     * free queue slots, or free permits with virtual threads).
+     */
+    public int remainingCapacity(NotificationPriority priority) {
+        VirtualLane virtualLane = virtualLanes.get(priority);
+        if (virtualLane != null) {
+            return virtualLane.permits.availablePermits();
+        }
+        ThreadPoolExecutor pool = executors.get(priority).getThreadPoolExecutor();
+        int idleWorkers = pool.getMaximumPoolSize() - pool.getActiveCount();
+        return Math.max(0, idleWorkers - pool.getQueue().size()) + pool.getQueue().remainingCapacity();
+    }
+
+    private void registerQueueWait(NotificationPriority priority, MeterRegistry registry) {
+        queueWait.put(priority, Timer.builder("notification.lane.queue.wait")
+                .description("Time a delivery waits in its lane queue for a worker")
+                .tag("priority", priority.name())
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private <T> void registerGauges(NotificationPriority priority, T lane,
+            ToDoubleFunction<T> active, ToDoubleFunction<T> queued,
+            MeterRegistry registry) {
+        Gauge.builder("notification.lane.active", lane, active)
+                .description("Lane workers currently running a delivery")
+                .tag("priority", priority.name())
+                .register(registry);
+        Gauge.builder("notification.lane.queue.depth", lane, queued)
+                .description("Deliveries queued on the lane")
+                .tag("priority", priority.name())
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        executors.values().forEach(ThreadPoolTaskExecutor::shutdown);
+        virtualLanes.values().forEach(VirtualLane::shutdown);
+    }
+
+    /**
+     * Virtual-thread-per-delivery lane, bounded by a semaphore instead of a
+     * fixed pool.
+     */
+    private static final class VirtualLane {
+        private final ExecutorService executor;
+        private final Semaphore permits;
+        private final AtomicInteger active = new AtomicInteger();
+        private final int capacity;
+
+        VirtualLane(String threadNamePrefix, int capacity) {
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadNamePrefix, 0).factory());
+            this.capacity = capacity;
+            this.permits = new Semaphore(capacity);
+        }
+
+        void execute(NotificationPriority priority, Runnable delivery) {
+            if (!permits.tryAcquire()) {
+                throw new TaskRejectedException(priority + " lane is full (" + capacity + " deliveries)");
+            }
+            try {
+                executor.execute(() -> {
+                    active.incrementAndGet();
+                    try {
+                        delivery.run();
+                    } finally {
+                        active.decrementAndGet();
+                        permits.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                permits.release();
+                throw new TaskRejectedException(priority + " lane is shut down", e);
+            }
+        }
+
+        int active() {
+            return active.get();
+        }
+
+        void shutdown() {
+            executor.shutdown();
+            try {
+                // Same grace period as the platform lanes
+                if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -1,23 +1,29 @@
 package scm.notification.service;
 
 import scm.notification.constants.EmailConstants;
+import scm.notification.metrics.NotificationMetrics;
+import jakarta.mail.Address;
 import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamSource;
 import org.thymeleaf.TemplateEngine;
-import java.nio.charset.StandardCharsets;
 import org.thymeleaf.context.Context;
 
+import java.io.UnsupportedEncodingException;
 import java.time.Year;
-import java.util.Base64;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -32,6 +38,15 @@ public class EmailService {
 
     private final JavaMailSender mailSender;
     private final TemplateEngine templateEngine;
+    private final SmtpTransportPool transportPool;
+    private final TemplateRenderCache renderCache;
+    private final NotificationMetrics metrics;
+
+    @Value("${notification.email.render-cache.enabled:true}")
+    private boolean renderCacheEnabled;
+
+    @Value("${notification.email.pool.enabled:true}")
+    private boolean transportPoolEnabled;
 
     @Value("${notification.email.from}")
     private String fromEmail;
@@ -45,20 +60,116 @@ public class EmailService {
      * @param to          Recipient email address
      * @param subject     Email subject
      * @param content     Email content (can contain HTML)
-     * @param attachments Map of filename to content
+     * @param attachments Map of filename to attachment source
      * @throws MessagingException if email sending fails
      */
-    public void sendNotificationEmail(String to, String subject, String content, Map<String, String> attachments)
+    public void sendNotificationEmail(String to, String subject, String content,
+            Map<String, InputStreamSource> attachments)
             throws MessagingException {
         Map<String, Object> variables = new HashMap<>();
         variables.put("subject", subject != null ? subject : EmailConstants.SUBJECT_GENERAL_NOTIFICATION);
         variables.put("content", content);
-        variables.put("recipientEmail", to);
+        variables.put(EmailConstants.TEMPLATE_VAR_RECIPIENT, to);
         variables.put("companyName", EmailConstants.COMPANY_NAME);
         variables.put("companyAddress", EmailConstants.COMPANY_ADDRESS);
         variables.put("year", Year.now().getValue());
 
-        sendTemplatedEmail(to, subject, EmailConstants.TEMPLATE_BASE_NOTIFICATION, variables, attachments);
+        if (!renderCacheEnabled) {
+            sendTemplatedEmail(to, subject, EmailConstants.TEMPLATE_BASE_NOTIFICATION, variables, attachments);
+            return;
+        }
+
+        // Broadcasts differ only by recipient, so reuse the cached rendering
+        String htmlContent;
+        long start = System.nanoTime();
+        try {
+            TemplateRenderCache.Rendered rendered = renderCache.render(EmailConstants.TEMPLATE_BASE_NOTIFICATION,
+                    variables, EmailConstants.TEMPLATE_VAR_RECIPIENT);
+            metrics.recordRender(EmailConstants.TEMPLATE_BASE_NOTIFICATION, rendered.cached(),
+                    System.nanoTime() - start);
+            htmlContent = rendered.html();
+        } catch (RuntimeException e) {
+            log.error("[EMAIL SERVICE] Failed to process template '{}': {}",
+                    EmailConstants.TEMPLATE_BASE_NOTIFICATION, e.getMessage());
+            throw new MessagingException("Failed to process email template: " + e.getMessage(), e);
+        }
+        sendHtmlEmail(to, subject, htmlContent, attachments);
+    }
+
+    /**
+     * Sends one message using the base notification template to all recipients,
+     * each as its own RCPT TO. Recipients are only on the envelope (Bcc), never
+     * in the headers, and the template leaves out the per-recipient footer.
+     * Recipients the server refuses do not stop delivery to the others
+     * (mail.smtp.sendpartial).
+     *
+     * @param recipients  Recipient email addresses
+     * @param subject     Email subject
+     * @param content     Email content (can contain HTML)
+     * @param attachments Map of filename to attachment source
+     * @return Recipients the message was not delivered to, with the reason;
+     *         empty when every recipient was accepted
+     * @throws MessagingException if the message was not delivered to anyone
+     */
+    public Map<String, MessagingException> sendNotificationEmailToAll(List<String> recipients, String subject,
+            String content, Map<String, InputStreamSource> attachments)
+            throws MessagingException {
+        log.info("[EMAIL SERVICE] Sending fan-out email to {} recipients", recipients.size());
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("subject", subject != null ? subject : EmailConstants.SUBJECT_GENERAL_NOTIFICATION);
+        variables.put("content", content);
+        variables.put("companyName", EmailConstants.COMPANY_NAME);
+        variables.put("companyAddress", EmailConstants.COMPANY_ADDRESS);
+        variables.put("year", Year.now().getValue());
+
+        String htmlContent;
+        long start = System.nanoTime();
+        try {
+            htmlContent = templateEngine.process(EmailConstants.TEMPLATE_BASE_NOTIFICATION, contextOf(variables));
+            metrics.recordRender(EmailConstants.TEMPLATE_BASE_NOTIFICATION, false, System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            log.error("[EMAIL SERVICE] Failed to process template '{}': {}",
+                    EmailConstants.TEMPLATE_BASE_NOTIFICATION, e.getMessage());
+            throw new MessagingException("Failed to process email template: " + e.getMessage(), e);
+        }
+
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        try {
+            helper.setFrom(fromEmail, fromName != null ? fromName : "Notification Service");
+        } catch (UnsupportedEncodingException e) {
+            throw new MessagingException("Invalid sender name: " + e.getMessage(), e);
+        }
+        helper.setBcc(recipients.toArray(String[]::new));
+        message.setHeader("To", "undisclosed-recipients:;");
+        helper.setSubject(subject);
+        helper.setText(htmlContent, true);
+        if (attachments != null) {
+            for (Map.Entry<String, InputStreamSource> entry : attachments.entrySet()) {
+                helper.addAttachment(entry.getKey(), entry.getValue());
+            }
+        }
+
+        try {
+            dispatch(message);
+        } catch (MessagingException | MailException e) {
+            SendFailedException partial = partialFailure(e);
+            if (partial == null || partial.getValidSentAddresses() == null
+                    || partial.getValidSentAddresses().length == 0) {
+                log.error("[EMAIL SERVICE] Fan-out email to {} recipients failed: {}", recipients.size(),
+                        e.getMessage());
+                throw e instanceof MessagingException messaging ? messaging
+                        : new MessagingException("Failed to send email: " + e.getMessage(), e);
+            }
+            Map<String, MessagingException> failed = undelivered(partial);
+            log.warn("[EMAIL SERVICE] Fan-out email not delivered to {} of {} recipients", failed.size(),
+                    recipients.size());
+            return failed;
+        }
+
+        log.info("[EMAIL SERVICE] Fan-out email sent to {} recipients", recipients.size());
+        return Map.of();
     }
 
     /**
@@ -68,11 +179,11 @@ public class EmailService {
      * @param subject      Email subject
      * @param templateName Template name (without .html extension)
      * @param variables    Template variables
-     * @param attachments  Map of filename to content
+     * @param attachments  Map of filename to attachment source
      * @throws MessagingException if email sending fails
      */
     public void sendTemplatedEmail(String to, String subject, String templateName, Map<String, Object> variables,
-            Map<String, String> attachments)
+            Map<String, InputStreamSource> attachments)
             throws MessagingException {
 
         log.info("[EMAIL SERVICE] Preparing templated email to: {}", to);
@@ -83,7 +194,9 @@ public class EmailService {
             context.setVariables(variables);
 
             // Process the template
+            long start = System.nanoTime();
             String htmlContent = templateEngine.process(templateName, context);
+            metrics.recordRender(templateName, false, System.nanoTime() - start);
 
             // Create and send the email
             sendHtmlEmail(to, subject, htmlContent, attachments);
@@ -102,10 +215,12 @@ public class EmailService {
      * @param to          Recipient email address
      * @param subject     Email subject
      * @param htmlContent HTML content of the email
-     * @param attachments Map of filename to content
+     * @param attachments Map of filename to attachment source; each source is
+     *                    streamed into the message when it is written
      * @throws MessagingException if email sending fails
      */
-    public void sendHtmlEmail(String to, String subject, String htmlContent, Map<String, String> attachments)
+    public void sendHtmlEmail(String to, String subject, String htmlContent,
+            Map<String, InputStreamSource> attachments)
             throws MessagingException {
         log.info("[EMAIL SERVICE] Sending HTML email to: {}", to);
 
@@ -119,29 +234,18 @@ public class EmailService {
             helper.setText(htmlContent, true); // true = isHtml
 
             if (attachments != null && !attachments.isEmpty()) {
-                for (Map.Entry<String, String> entry : attachments.entrySet()) {
-                    String filename = entry.getKey();
-                    String content = entry.getValue();
-                    if (content != null) {
-                        byte[] fileBytes;
-                        try {
-                            // Strip whitespace to ensure standard Base64 parsing (MIME can be messy)
-                            String sanitized = content.replaceAll("\\s+", "");
-                            // Try to decode as Base64 (for images, pdfs, etc.)
-                            fileBytes = Base64.getDecoder().decode(sanitized);
-                        } catch (IllegalArgumentException e) {
-                            // Fallback to plain text (for ics, txt, html files sent as raw string)
-                            fileBytes = content.getBytes(StandardCharsets.UTF_8);
-                        }
-                        helper.addAttachment(filename, new ByteArrayResource(fileBytes));
-                    }
+                for (Map.Entry<String, InputStreamSource> entry : attachments.entrySet()) {
+                    helper.addAttachment(entry.getKey(), entry.getValue());
                 }
             }
 
-            mailSender.send(message);
+            dispatch(message);
 
             log.info("[EMAIL SERVICE] HTML email sent successfully to: {}", to);
 
+        } catch (MessagingException e) {
+            log.error("[EMAIL SERVICE] SMTP exchange failed for {}: {}", to, e.getMessage());
+            throw new MessagingException("Failed to send email: " + e.getMessage(), e);
         } catch (MailException e) {
             log.error("[EMAIL SERVICE] Mail sending failed to {}: {}", to, e.getMessage());
             throw new MessagingException("Failed to send email: " + e.getMessage(), e);
@@ -171,10 +275,13 @@ public class EmailService {
             helper.setSubject(subject);
             helper.setText(textContent, false); // false = not HTML
 
-            mailSender.send(message);
+            dispatch(message);
 
             log.info("[EMAIL SERVICE] Plain text email sent successfully to: {}", to);
 
+        } catch (MessagingException e) {
+            log.error("[EMAIL SERVICE] SMTP exchange failed for {}: {}", to, e.getMessage());
+            throw new MessagingException("Failed to send email: " + e.getMessage(), e);
         } catch (MailException e) {
             log.error("[EMAIL SERVICE] Mail sending failed to {}: {}", to, e.getMessage());
             throw new MessagingException("Failed to send email: " + e.getMessage(), e);
@@ -184,6 +291,70 @@ public class EmailService {
         }
     }
 
+    /**
+     * Sends the message over a pooled SMTP connection, or through JavaMailSender
+     * (one connection per message) when pooling is disabled.
+     */
+    private void dispatch(MimeMessage message) throws MessagingException {
+        if (transportPoolEnabled) {
+            transportPool.send(message);
+        } else {
+            mailSender.send(message);
+        }
+    }
+
+    /**
+     * The SendFailedException carrying per-address results, whether thrown by
+     * the transport pool or wrapped by JavaMailSender.
+     */
+    private static SendFailedException partialFailure(Exception failure) {
+        if (failure instanceof SendFailedException sendFailed) {
+            return sendFailed;
+        }
+        if (failure instanceof MailSendException mailSend) {
+            for (Exception cause : mailSend.getMessageExceptions()) {
+                if (cause instanceof SendFailedException sendFailed) {
+                    return sendFailed;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Maps every recipient that did not get the message to its failure:
+     * refused addresses to the server's reply for them (so 5xx stays permanent
+     * and 4xx transient), accepted-but-unsent ones to a transient error.
+     */
+    private static Map<String, MessagingException> undelivered(SendFailedException partial) {
+        Map<String, MessagingException> failures = new HashMap<>();
+        for (Exception next = partial.getNextException(); next instanceof MessagingException messaging;
+                next = messaging.getNextException()) {
+            if (next instanceof SMTPAddressFailedException refused) {
+                failures.put(refused.getAddress().getAddress(), refused);
+            }
+        }
+        if (partial.getInvalidAddresses() != null) {
+            for (Address address : partial.getInvalidAddresses()) {
+                String recipient = ((InternetAddress) address).getAddress();
+                failures.putIfAbsent(recipient, new MessagingException("Recipient refused: " + recipient));
+            }
+        }
+        if (partial.getValidUnsentAddresses() != null) {
+            for (Address address : partial.getValidUnsentAddresses()) {
+                String recipient = ((InternetAddress) address).getAddress();
+                failures.putIfAbsent(recipient, new MessagingException("Message not sent to " + recipient));
+            }
+        }
+        return failures;
+    }
+
+    private static Context contextOf(Map<String, Object> variables) {
+        Context context = new Context();
+        context.setVariables(variables);
+        return context;
+    }
+
     /**
      * Validates an email address format.
      *
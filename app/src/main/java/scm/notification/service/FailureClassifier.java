@@ -0,0 +1,48 @@
+package scm.notification.service;
+
+import scm.notification.enums.FailureClass;
+import scm.notification.exception.PermanentDeliveryException;
+import jakarta.mail.internet.AddressException;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Classifies provider exceptions as transient (worth retrying) or permanent.
+ *
+ * The cause chain is inspected so that wrapped SMTP errors are recognised:
+ * 5xx SMTP replies, malformed addresses and invalid arguments are permanent;
+ * 4xx replies, timeouts, connection errors and anything unrecognised are
+ * transient.
+ */
+@Component
+public class FailureClassifier {
+
+    private static final int MAX_CAUSE_DEPTH = 10;
+
+    public FailureClass classify(Throwable failure) {
+        Throwable current = failure;
+        for (int depth = 0; current != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            if (current instanceof PermanentDeliveryException
+                    || current instanceof IllegalArgumentException
+                    || current instanceof AddressException) {
+                return FailureClass.PERMANENT;
+            }
+            if (current instanceof SMTPAddressFailedException addressFailed) {
+                return classifySmtpReply(addressFailed.getReturnCode());
+            }
+            if (current instanceof SMTPSendFailedException sendFailed) {
+                return classifySmtpReply(sendFailed.getReturnCode());
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+            current = current.getCause();
+        }
+        return FailureClass.TRANSIENT;
+    }
+
+    private static FailureClass classifySmtpReply(int returnCode) {
+        return returnCode >= 500 && returnCode < 600 ? FailureClass.PERMANENT : FailureClass.TRANSIENT;
+    }
+}
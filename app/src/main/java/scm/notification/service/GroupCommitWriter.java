@@ -0,0 +1,269 @@
+package scm.notification.service;
+
+import scm.notification.audit.AuditLogWriter;
+import scm.notification.entity.Notification;
+import scm.notification.entity.NotificationAuditLog;
+import scm.notification.enums.NotificationStatus;
+import scm.notification.event.NotificationCreatedEvent;
+import scm.notification.metrics.NotificationMetrics;
+import scm.notification.repository.NotificationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Inserts triggered notifications, optionally with group commit.
+ *
+ * With group commit enabled, concurrent callers hand their notification to a
+ * single combiner thread. It collects everything waiting, up to max-batch-size
+ * or until max-wait-micros after the first arrival, and inserts the
+ * notifications and their RECEIVED audit entries in one batched transaction.
+ * Each caller returns once its group has committed, so the commit (and its
+ * fsync) is shared by the whole group and ingest throughput grows with load.
+ *
+ * If a group fails, its members are retried one transaction each so that one
+ * bad row (e.g. a duplicate idempotency key) fails only its own caller. When
+ * the queue is full, or the combiner is not running, the caller inserts in its
+ * own transaction, as it does with group commit disabled.
+ *
+ * A caller waits up to commit-timeout-ms for its group. If the combiner has not
+ * taken the insert by then, the caller takes it back and inserts it itself;
+ * otherwise it waits for the group's outcome, which is bounded by the group
+ * transaction's timeout (commit-timeout-ms as well). Either way the caller
+ * reports what actually happened to its row, so a timed out request never
+ * leaves behind a notification its client was told had failed.
+ */
+@Component
+@Slf4j
+public class GroupCommitWriter implements SmartLifecycle {
+
+    private final NotificationRepository repository;
+    private final AuditLogWriter auditLogWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NotificationMetrics metrics;
+    private final TransactionTemplate groupTransaction;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final long commitTimeoutMs;
+    private final BlockingQueue<PendingInsert> queue;
+
+    private volatile boolean running;
+    private volatile Thread combiner;
+
+    public GroupCommitWriter(NotificationRepository repository, AuditLogWriter auditLogWriter,
+            ApplicationEventPublisher eventPublisher, NotificationMetrics metrics,
+            TransactionTemplate transactionTemplate,
+            @Value("${notification.ingest.group-commit.enabled:true}") boolean enabled,
+            @Value("${notification.ingest.group-commit.max-batch-size:200}") int maxBatchSize,
+            @Value("${notification.ingest.group-commit.max-wait-micros:500}") long maxWaitMicros,
+            @Value("${notification.ingest.group-commit.queue-capacity:10000}") int queueCapacity,
+            @Value("${notification.ingest.group-commit.commit-timeout-ms:30000}") long commitTimeoutMs) {
+        this.repository = repository;
+        this.auditLogWriter = auditLogWriter;
+        this.eventPublisher = eventPublisher;
+        this.metrics = metrics;
+        this.groupTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager(),
+                transactionTemplate);
+        this.groupTransaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(commitTimeoutMs)));
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(maxWaitMicros);
+        this.commitTimeoutMs = commitTimeoutMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Persists the notification with its RECEIVED audit entry and publishes its
+     * created event, returning once the transaction has committed.
+     *
+     * @return the ID of the inserted notification
+     * @throws org.springframework.dao.DataAccessException if the insert failed,
+     *         e.g. with a DataIntegrityViolationException for a duplicate idempotency key
+     */
+    public UUID insert(Notification notification) {
+        PendingInsert pending = new PendingInsert(notification, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            return persist(List.of(notification)).get(0).getId();
+        }
+        try {
+            try {
+                return pending.result().get(commitTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (queue.remove(pending)) {
+                    log.warn("Group commit did not pick up an insert within {} ms, inserting directly",
+                            commitTimeoutMs);
+                    return persist(List.of(notification)).get(0).getId();
+                }
+                // Already part of a group; its transaction times out on its own, so the outcome is on its way
+                return pending.result().get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Group commit failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for group commit", e);
+        }
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        combiner = Thread.ofPlatform().name("group-commit").daemon(true).start(this::commitLoop);
+        log.info("Group commit started (batch {}, window {} us)", maxBatchSize,
+                TimeUnit.NANOSECONDS.toMicros(maxWaitNanos));
+    }
+
+    @Override
+    public void stop() {
+        Thread current = combiner;
+        running = false;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Callers that queued while the combiner was shutting down
+        List<PendingInsert> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            commit(remaining);
+        }
+        log.info("Group commit stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the web server (phase DEFAULT_PHASE - 2048), so trigger
+     * requests still in flight during shutdown can complete their group.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void commitLoop() {
+        List<PendingInsert> group = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                PendingInsert first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (group.size() < maxBatchSize) {
+                    queue.drainTo(group, maxBatchSize - group.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (group.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingInsert next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                commit(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (!group.isEmpty()) {
+                    commit(group);
+                }
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingInsert> group) {
+        List<Notification> notifications = group.stream().map(PendingInsert::notification).toList();
+        try {
+            List<Notification> saved = persist(notifications);
+            for (int i = 0; i < group.size(); i++) {
+                group.get(i).result().complete(saved.get(i).getId());
+            }
+            return;
+        } catch (RuntimeException e) {
+            if (group.size() == 1) {
+                group.get(0).result().completeExceptionally(e);
+                return;
+            }
+            log.debug("Group commit of {} notifications failed, inserting individually: {}", group.size(),
+                    e.getMessage());
+        }
+
+        for (PendingInsert pending : group) {
+            Notification notification = pending.notification();
+            // Clear IDs assigned by the rolled-back batch so the retry generates fresh ones
+            notification.setId(null);
+            notification.setVersion(null);
+            try {
+                pending.result().complete(persist(List.of(notification)).get(0).getId());
+            } catch (RuntimeException e) {
+                pending.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Inserts the notifications and their audit entries in one transaction and
+     * publishes their created events, which are delivered after the commit.
+     */
+    @SuppressWarnings("null")
+    private List<Notification> persist(List<Notification> notifications) {
+        return groupTransaction.execute(tx -> {
+            List<Notification> saved = repository.saveAll(notifications);
+            // Surface constraint violations (duplicate idempotency keys) before the events go out
+            repository.flush();
+            metrics.transition(null, NotificationStatus.PENDING, saved.size());
+
+            LocalDateTime now = LocalDateTime.now();
+            auditLogWriter.recordAll(saved.stream()
+                    .map(n -> NotificationAuditLog.builder()
+                            .notificationId(n.getId())
+                            .status("RECEIVED")
+                            .details("Notification request accepted")
+                            .timestamp(now)
+                            .build())
+                    .toList());
+            saved.forEach(n -> eventPublisher.publishEvent(new NotificationCreatedEvent(n.getId(), n.getPriority())));
+            return saved;
+        });
+    }
+
+    private record PendingInsert(Notification notification, CompletableFuture<UUID> result) {
+    }
+}
@@ -0,0 +1,55 @@
+package scm.notification.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Bounded LRU of recently accepted idempotency keys.
+ *
+ * Upstream retries usually arrive within seconds of the original request, so
+ * most duplicates are answered from here without touching the database. The
+ * unique index on notifications.idempotency_key remains the source of truth:
+ * a miss never means "new", it only means the insert will find out.
+ */
+@Component
+public class IdempotencyCache {
+
+    private final Cache<String, UUID> cache;
+
+    public IdempotencyCache(@Value("${notification.idempotency.cache-size:100000}") long maxSize,
+            @Value("${notification.idempotency.cache-ttl-ms:86400000}") long ttlMs) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+    }
+
+    public UUID get(String idempotencyKey) {
+        return cache.getIfPresent(idempotencyKey);
+    }
+
+    /**
+     * Remembers the key once the surrounding transaction commits (or
+     * immediately when there is none), so the cache never points at a row
+     * that was rolled back.
+     */
+    public void put(String idempotencyKey, UUID notificationId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.put(idempotencyKey, notificationId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.put(idempotencyKey, notificationId);
+            }
+        });
+    }
+}
@@ -0,0 +1,150 @@
+package scm.notification.service;
+
+import scm.notification.config.ArchiveProperties;
+import scm.notification.enums.NotificationPriority;
+import scm.notification.enums.NotificationStatus;
+import scm.notification.repository.NotificationArchiveRepository;
+import scm.notification.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the hot tables down to the working set.
+ *
+ * SENT and FAILED notifications older than the retention window are moved,
+ * with their attachment references and audit rows, to the archive tables
+ * (notifications_archive, notification_attachments_archive,
+ * notification_audit_logs_archive); archived rows older than purge-after are
+ * deleted, together with the attachment blobs nothing else refers to. Both run
+ * in small batches, one short transaction each, with a pause in between and a
+ * time budget per run, so archival never holds many locks or saturates the
+ * disk. Hot rows are locked with SKIP LOCKED, so several
+ * replicas can run the archiver at the same time.
+ *
+ * Status lookups fall back to the archive, so an archived notification keeps
+ * its ID and final status.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationArchiver {
+
+    private static final List<NotificationStatus> TERMINAL = List.of(NotificationStatus.SENT,
+            NotificationStatus.FAILED);
+
+    private final NotificationRepository repository;
+    private final NotificationArchiveRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ArchiveProperties properties;
+    private final AttachmentCollector attachmentCollector;
+
+    @Scheduled(initialDelayString = "${notification.archive.initial-delay-ms:300000}",
+            fixedDelayString = "${notification.archive.interval-ms:3600000}")
+    public void archive() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long deadline = System.nanoTime() + properties.getMaxRunTime().toNanos();
+        LocalDateTime now = LocalDateTime.now();
+
+        LocalDateTime archiveCutoff = now.minus(properties.getRetention());
+        long archived = 0;
+        for (NotificationStatus status : TERMINAL) {
+            for (NotificationPriority priority : NotificationPriority.values()) {
+                archived += drain(deadline, () -> archiveBatch(status, priority, archiveCutoff));
+            }
+        }
+
+        LocalDateTime purgeCutoff = now.minus(properties.getPurgeAfter());
+        long purged = drain(deadline, () -> purgeBatch(purgeCutoff));
+
+        if (archived > 0 || purged > 0) {
+            log.info("[ARCHIVER] Archived {} notifications (before {}), purged {} (before {}){}", archived,
+                    archiveCutoff, purged, purgeCutoff,
+                    System.nanoTime() >= deadline ? "; run time budget used up, continuing next run" : "");
+        }
+    }
+
+    /**
+     * Runs batches until one comes back short or the time budget is used up.
+     */
+    private long drain(long deadline, Supplier<Integer> batch) {
+        long total = 0;
+        while (System.nanoTime() < deadline) {
+            Integer moved = transactionTemplate.execute(tx -> batch.get());
+            int count = moved != null ? moved : 0;
+            total += count;
+            if (count < properties.getBatchSize() || !pause()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private int archiveBatch(NotificationStatus status, NotificationPriority priority, LocalDateTime cutoff) {
+        List<UUID> ids = repository.findArchivable(status, priority, cutoff,
+                PageRequest.of(0, properties.getBatchSize()));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archiveRepository.copyNotifications(ids, LocalDateTime.now());
+        archiveRepository.copyAttachments(ids);
+        archiveRepository.copyAuditLogs(ids);
+        archiveRepository.deleteAttachments(ids);
+        archiveRepository.deleteAuditLogs(ids);
+        archiveRepository.deleteNotifications(ids);
+        return ids.size();
+    }
+
+    private int purgeBatch(LocalDateTime cutoff) {
+        List<UUID> ids = archiveRepository.findPurgeable(cutoff, PageRequest.of(0, properties.getBatchSize()));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<String> blobs = archiveRepository.findAttachmentHashes(ids);
+        archiveRepository.purgeAttachments(ids);
+        archiveRepository.purgeAuditLogs(ids);
+        archiveRepository.purgeNotifications(ids);
+        if (!blobs.isEmpty()) {
+            // Only once the references are gone for good; blobs still used elsewhere are kept
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteBlobs(blobs);
+                }
+            });
+        }
+        return ids.size();
+    }
+
+    private void deleteBlobs(List<String> blobs) {
+        try {
+            int deleted = attachmentCollector.deleteUnreferenced(blobs);
+            log.debug("[ARCHIVER] Deleted {} of {} attachment blobs of purged notifications", deleted, blobs.size());
+        } catch (RuntimeException e) {
+            // Left for the attachment collector's next sweep
+            log.warn("[ARCHIVER] Could not delete attachment blobs of purged notifications: {}", e.getMessage());
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getBatchPause());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package scm.notification.service;
+
+import scm.notification.config.DeliveryProperties;
+import scm.notification.entity.Notification;
+import scm.notification.enums.NotificationChannel;
+import scm.notification.enums.NotificationPriority;
+import scm.notification.enums.NotificationStatus;
+import scm.notification.metrics.NotificationMetrics;
+import scm.notification.repository.NotificationRepository;
+import scm.notification.resilience.ChannelGuard;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Outbox-style dispatcher that treats the notifications table as the queue.
+ *
+ * Each poll claims a batch of PENDING rows whose next_attempt_at is due with
+ * SELECT ... FOR UPDATE SKIP LOCKED and marks them IN_PROGRESS in the same
+ * short transaction, then hands them to the processor. Fresh rows become due
+ * after a short grace period (giving the in-memory fast path the first shot),
+ * retries after their backoff. Replicas poll concurrently without ever
+ * claiming the same row, so dispatch throughput scales with the number of
+ * nodes and no longer depends on the in-memory event path succeeding.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationDispatcher {
+
+    private final NotificationRepository repository;
+    private final NotificationProcessor notificationProcessor;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationStatusCache statusCache;
+    private final ChannelGuard channelGuard;
+    private final DeliveryLanes deliveryLanes;
+    private final NotificationMetrics metrics;
+    private final DeliveryProperties deliveryProperties;
+
+    @Value("${notification.dispatcher.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notification.dispatcher.batch-size:100}")
+    private int batchSize;
+
+    /**
+     * Serves the lanes in strict priority order, claiming for each lane no more
+     * rows than it can take right now, so a BULK backlog is only drained with
+     * capacity left over after the higher lanes, and never delays them.
+     */
+    @Scheduled(fixedDelayString = "${notification.dispatcher.poll-interval-ms:1000}")
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            dispatchLane(priority);
+        }
+    }
+
+    private void dispatchLane(NotificationPriority priority) {
+        boolean saturated = false;
+        int limit;
+        List<Claimed> claimed;
+        do {
+            limit = Math.min(batchSize, deliveryLanes.remainingCapacity(priority));
+            if (limit == 0) {
+                return;
+            }
+            claimed = claimBatch(priority, limit);
+            if (!claimed.isEmpty()) {
+                log.debug("Claimed {} {} notifications for dispatch", claimed.size(), priority);
+            }
+            for (Delivery delivery : deliveries(claimed)) {
+                saturated |= !submit(priority, delivery);
+            }
+        } while (claimed.size() == limit && !saturated);
+    }
+
+    /**
+     * Splits a claimed batch into deliveries. Notifications with the same content
+     * fingerprint (identical batch-triggered emails) share one delivery of up to
+     * max-recipients, sent as a single multi-recipient message; all others are
+     * delivered on their own. A group is one provider call, so it keeps one of
+     * the channel slots reserved for its rows and gives back the rest.
+     */
+    private List<Delivery> deliveries(List<Claimed> claimed) {
+        DeliveryProperties.FanOut fanOut = deliveryProperties.getFanOut();
+        List<Delivery> deliveries = new ArrayList<>(claimed.size());
+        Map<String, Delivery> open = new HashMap<>();
+        for (Claimed notification : claimed) {
+            if (!fanOut.isEnabled() || notification.contentFingerprint() == null) {
+                deliveries.add(new Delivery(notification.channel(), List.of(notification.id())));
+                continue;
+            }
+            String key = notification.channel() + ":" + notification.contentFingerprint();
+            Delivery group = open.get(key);
+            if (group == null || group.ids().size() >= fanOut.getMaxRecipients()) {
+                group = new Delivery(notification.channel(), new ArrayList<>());
+                open.put(key, group);
+                deliveries.add(group);
+            } else {
+                channelGuard.cancelReserved(notification.channel(), 1);
+            }
+            group.ids().add(notification.id());
+        }
+        return deliveries;
+    }
+
+    /**
+     * Claims due rows channel by channel, each up to the channel's free slots,
+     * and reserves those slots in the channel guard until the deliveries run.
+     * Rows of channels with an open circuit or no free slot stay parked instead
+     * of being claimed and deferred, and a slot counted here cannot be taken by
+     * another poll or the fast path before the claimed row gets to use it.
+     */
+    @SuppressWarnings("null")
+    private List<Claimed> claimBatch(NotificationPriority priority, int limit) {
+        Map<NotificationChannel, Integer> reservations = new EnumMap<>(NotificationChannel.class);
+        try {
+            return transactionTemplate.execute(status -> {
+                List<Claimed> claimed = new ArrayList<>();
+                LocalDateTime now = LocalDateTime.now();
+                for (Map.Entry<NotificationChannel, Integer> slots : channelGuard.availableSlots().entrySet()) {
+                    NotificationChannel channel = slots.getKey();
+                    int wanted = Math.min(limit - claimed.size(), slots.getValue());
+                    if (wanted == 0) {
+                        break;
+                    }
+                    int reserved = channelGuard.reserve(channel, wanted);
+                    if (reserved == 0) {
+                        continue;
+                    }
+                    reservations.put(channel, reserved);
+                    List<Notification> due = repository.findDueForDispatch(NotificationStatus.PENDING, priority,
+                            List.of(channel), now, PageRequest.of(0, reserved));
+                    channelGuard.cancelReserved(channel, reserved - due.size());
+                    reservations.put(channel, due.size());
+                    due.forEach(n -> {
+                        n.setStatus(NotificationStatus.IN_PROGRESS);
+                        statusCache.update(n.getId(), NotificationStatus.IN_PROGRESS, n.getErrorMessage());
+                        claimed.add(new Claimed(n.getId(), channel, n.getContentFingerprint()));
+                    });
+                }
+                metrics.transition(NotificationStatus.PENDING, NotificationStatus.IN_PROGRESS, claimed.size());
+                return claimed;
+            });
+        } catch (RuntimeException e) {
+            // Nothing was claimed
+            reservations.forEach(channelGuard::cancelReserved);
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("null")
+    private boolean submit(NotificationPriority priority, Delivery delivery) {
+        NotificationChannel channel = delivery.channel();
+        List<UUID> ids = delivery.ids();
+        try {
+            if (ids.size() == 1) {
+                UUID notificationId = ids.get(0);
+                deliveryLanes.submit(priority, () -> notificationProcessor.processClaimed(notificationId, channel));
+            } else {
+                deliveryLanes.submit(priority, () -> notificationProcessor.processClaimedGroup(ids, channel));
+            }
+            return true;
+        } catch (TaskRejectedException e) {
+            // Give the claims and the reserved slot back so the next poll (here or on another node) can take them
+            channelGuard.cancelReserved(channel, 1);
+            LocalDateTime now = LocalDateTime.now();
+            for (UUID notificationId : ids) {
+                int released = repository.transitionStatus(notificationId, NotificationStatus.IN_PROGRESS,
+                        NotificationStatus.PENDING, now);
+                metrics.transition(NotificationStatus.IN_PROGRESS, NotificationStatus.PENDING, released);
+                statusCache.invalidate(notificationId);
+            }
+            log.warn("{} lane saturated, released claim on {} notifications", priority, ids.size());
+            return false;
+        }
+    }
+
+    private record Claimed(UUID id, NotificationChannel channel, String contentFingerprint) {
+    }
+
+    private record Delivery(NotificationChannel channel, List<UUID> ids) {
+    }
+}
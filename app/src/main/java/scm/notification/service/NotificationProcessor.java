@@ -1,87 +1,334 @@
 package scm.notification.service;
 
+import scm.notification.audit.AuditLogWriter;
+import scm.notification.config.DeliveryProperties;
 import scm.notification.entity.Notification;
-import scm.notification.entity.NotificationAuditLog;
+import scm.notification.enums.FailureClass;
+import scm.notification.enums.NotificationChannel;
 import scm.notification.enums.NotificationStatus;
+import scm.notification.exception.BulkheadFullException;
+import scm.notification.exception.CircuitOpenException;
+import scm.notification.exception.DeliveryDeferredException;
+import scm.notification.metrics.NotificationMetrics;
 import scm.notification.provider.NotificationProvider;
 import scm.notification.provider.NotificationProviderFactory;
-import scm.notification.repository.NotificationAuditLogRepository;
 import scm.notification.repository.NotificationRepository;
+import scm.notification.resilience.ChannelGuard;
+import scm.notification.resilience.DeliveryRateLimiter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import org.springframework.lang.NonNull;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Delivers notifications in three steps so that no database transaction or
+ * connection is held during the provider call:
+ * <ol>
+ * <li>claim: a short transaction moves the row PENDING -> IN_PROGRESS (here for
+ * the fast path, in {@link NotificationDispatcher} for polled rows);</li>
+ * <li>send: the provider call runs without a transaction;</li>
+ * <li>complete: a short transaction writes the outcome and its audit entry,
+ * fenced on the version read after the claim.</li>
+ * </ol>
+ * If the node dies between claim and complete, the row stays IN_PROGRESS until
+ * its lane's lease timeout and is then requeued by the lease recovery scan, so
+ * a notification is sent at least once. If a slow attempt outlives its lease
+ * and the row has been requeued meanwhile, the version no longer matches and
+ * the late outcome is discarded instead of overwriting the newer attempt.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationProcessor {
 
     private final NotificationRepository repository;
-    private final NotificationAuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
+    private final NotificationStatusCache statusCache;
+    private final FailureClassifier failureClassifier;
+    private final RetryBackoff retryBackoff;
     private final NotificationProviderFactory providerFactory;
+    private final ChannelGuard channelGuard;
+    private final DeliveryRateLimiter rateLimiter;
+    private final DeliveryProperties deliveryProperties;
+    private final NotificationMetrics metrics;
+    private final TransactionTemplate transactionTemplate;
 
-    private static final int MAX_RETRIES = 3;
+    static final int MAX_RETRIES = 3;
 
-    @Async("notificationExecutor")
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    /**
+     * Fast path for freshly created notifications: claims the row with a
+     * conditional PENDING -> IN_PROGRESS update and delivers it. If the update
+     * matches nothing, another worker (or the dispatcher) already owns the row.
+     * Runs on the notification's {@link DeliveryLanes} lane.
+     */
     public void process(@NonNull UUID notificationId) {
         log.debug("Processing notification: {}", notificationId);
 
-        Notification notification = repository.findById(notificationId).orElse(null);
-        if (notification == null)
+        int claimed = repository.transitionStatus(notificationId, NotificationStatus.PENDING,
+                NotificationStatus.IN_PROGRESS, LocalDateTime.now());
+        if (claimed == 0) {
+            log.debug("Notification {} already claimed or completed, skipping", notificationId);
             return;
+        }
+        metrics.transition(NotificationStatus.PENDING, NotificationStatus.IN_PROGRESS, 1);
+        statusCache.update(notificationId, NotificationStatus.IN_PROGRESS, null);
 
-        // Optimistic locking or status check handling
-        if (notification.getStatus() == NotificationStatus.SENT
-                || notification.getStatus() == NotificationStatus.FAILED) {
-            return;
+        deliver(notificationId, null);
+    }
+
+    /**
+     * Delivers a notification that the caller has already claimed (marked
+     * IN_PROGRESS), i.e. by {@link NotificationDispatcher}, on the channel
+     * slot it reserved for it. The slot is given back if the send never runs.
+     */
+    public void processClaimed(@NonNull UUID notificationId, @NonNull NotificationChannel reservedChannel) {
+        log.debug("Processing claimed notification: {}", notificationId);
+        deliver(notificationId, reservedChannel);
+    }
+
+    private void deliver(@NonNull UUID notificationId, NotificationChannel reservedChannel) {
+        boolean slotUsed = false;
+        try {
+            // Detached snapshot, attachments included: nothing is lazily loaded during the send
+            Notification notification = repository.findWithAttachmentsById(notificationId).orElse(null);
+            if (notification == null || notification.getStatus() != NotificationStatus.IN_PROGRESS)
+                return;
+            metrics.recordDispatchDelay(notification);
+
+            try {
+                NotificationProvider provider = providerFactory.getProvider(notification.getChannel());
+                rateLimiter.acquire(notification);
+                slotUsed = true;
+                Runnable send = () -> timedSend(provider, notification);
+                if (reservedChannel != null) {
+                    channelGuard.executeReserved(reservedChannel, send);
+                } else {
+                    channelGuard.execute(notification.getChannel(), send);
+                }
+            } catch (DeliveryDeferredException e) {
+                log.debug("Deferring notification {}: {}", notificationId, e.getMessage());
+                if (rejectedByGuard(e)) {
+                    rateLimiter.refund(notification);
+                }
+                defer(notification, e);
+                return;
+            } catch (Exception e) {
+                log.error("Error sending notification {}: {}", notificationId, e.getMessage());
+                handleFailure(notification, e);
+                return;
+            }
+
+            markSent(notification);
+        } finally {
+            // The reserved slot was never handed to the guard: row gone, or not sent on this attempt
+            if (reservedChannel != null && !slotUsed) {
+                channelGuard.cancelReserved(reservedChannel, 1);
+            }
         }
+    }
 
+    /**
+     * Delivers claimed email notifications that share subject, content and
+     * attachments (grouped by {@link NotificationDispatcher}) as one message
+     * with a RCPT TO per recipient. Every row still gets its own outcome:
+     * recipients the server accepted are SENT, refused ones go through the
+     * usual failure handling, and rate-limited ones are deferred individually.
+     * The message is sent on the single channel slot the dispatcher reserved
+     * for the group.
+     */
+    public void processClaimedGroup(@NonNull List<UUID> notificationIds, @NonNull NotificationChannel channel) {
+        log.debug("Processing claimed fan-out group of {} notifications", notificationIds.size());
+        boolean slotUsed = false;
         try {
-            // Mark as IN_PROGRESS if we want strict locking, but simplest is try to send
-            notification.setStatus(NotificationStatus.IN_PROGRESS);
-            notification = repository.saveAndFlush(notification); // Commit status change
+            List<Notification> group = new ArrayList<>(notificationIds.size());
+            for (Notification notification : repository.findWithAttachmentsByIdIn(notificationIds)) {
+                if (notification.getStatus() != NotificationStatus.IN_PROGRESS) {
+                    continue;
+                }
+                metrics.recordDispatchDelay(notification);
+                try {
+                    rateLimiter.acquire(notification);
+                    group.add(notification);
+                } catch (DeliveryDeferredException e) {
+                    defer(notification, e);
+                }
+            }
+            if (group.isEmpty()) {
+                return;
+            }
+
+            Map<UUID, Exception> failures = new HashMap<>();
+            try {
+                NotificationProvider provider = providerFactory.getProvider(channel);
+                slotUsed = true;
+                channelGuard.executeReserved(channel, () -> failures.putAll(timedSendGroup(provider, group)));
+            } catch (DeliveryDeferredException e) {
+                log.debug("Deferring fan-out group of {}: {}", group.size(), e.getMessage());
+                boolean rejected = rejectedByGuard(e);
+                group.forEach(notification -> {
+                    if (rejected) {
+                        rateLimiter.refund(notification);
+                    }
+                    defer(notification, e);
+                });
+                return;
+            } catch (Exception e) {
+                log.error("Error sending fan-out group of {}: {}", group.size(), e.getMessage());
+                group.forEach(notification -> handleFailure(notification, e));
+                return;
+            }
+
+            for (Notification notification : group) {
+                Exception failure = failures.get(notification.getId());
+                if (failure == null) {
+                    markSent(notification);
+                } else {
+                    handleFailure(notification, failure);
+                }
+            }
+        } finally {
+            if (!slotUsed) {
+                channelGuard.cancelReserved(channel, 1);
+            }
+        }
+    }
+
+    private void markSent(Notification notification) {
+        notification.setStatus(NotificationStatus.SENT);
+        notification.setErrorMessage(null);
+        if (!complete(notification, "SENT", "Successfully sent via " + notification.getChannel())) {
+            return;
+        }
+        metrics.transition(NotificationStatus.IN_PROGRESS, NotificationStatus.SENT, 1);
+        metrics.recordEndToEnd(notification);
+        checkLatencyTarget(notification);
+    }
 
-            NotificationProvider provider = providerFactory.getProvider(notification.getChannel());
+    /**
+     * Writes the outcome of the attempt and its audit entry in one short
+     * transaction. Returns false when the row is no longer this attempt's
+     * (lease expired and requeued), in which case nothing is written.
+     */
+    private boolean complete(Notification notification, String auditStatus, String auditDetails) {
+        Boolean completed = transactionTemplate.execute(tx -> {
+            int updated = repository.completeAttempt(notification.getId(), notification.getVersion(),
+                    notification.getStatus(), notification.getErrorMessage(), notification.getRetryCount(),
+                    notification.getNextAttemptAt(), LocalDateTime.now());
+            if (updated == 0) {
+                return false;
+            }
+            logAudit(notification.getId(), auditStatus, auditDetails);
+            return true;
+        });
+        if (!Boolean.TRUE.equals(completed)) {
+            log.warn("Notification {} was requeued while in flight (lease expired), discarding {} outcome",
+                    notification.getId(), auditStatus);
+            statusCache.invalidate(notification.getId());
+            return false;
+        }
+        statusCache.update(notification.getId(), notification.getStatus(), notification.getErrorMessage());
+        return true;
+    }
+
+    private void timedSend(NotificationProvider provider, Notification notification) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
             provider.send(notification);
+            success = true;
+        } finally {
+            metrics.recordProviderSend(notification.getChannel(), System.nanoTime() - start, success);
+        }
+    }
+
+    private Map<UUID, Exception> timedSendGroup(NotificationProvider provider, List<Notification> group) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Map<UUID, Exception> failures = provider.sendGroup(group);
+            success = true;
+            return failures;
+        } finally {
+            metrics.recordProviderSend(group.get(0).getChannel(), System.nanoTime() - start, success);
+        }
+    }
 
-            notification.setStatus(NotificationStatus.SENT);
-            notification.setErrorMessage(null);
-            repository.save(notification);
+    /**
+     * Parks a notification whose channel is shedding load. The attempt was never
+     * made, so the retry budget is left untouched.
+     */
+    private void defer(Notification notification, DeliveryDeferredException deferral) {
+        LocalDateTime nextAttemptAt = LocalDateTime.ofInstant(deferral.getRetryAt(), ZoneId.systemDefault());
+        notification.setStatus(NotificationStatus.PENDING);
+        notification.setNextAttemptAt(nextAttemptAt);
+        if (complete(notification, "DEFERRED", deferral.getMessage() + ". Next attempt at " + nextAttemptAt)) {
+            metrics.transition(NotificationStatus.IN_PROGRESS, NotificationStatus.PENDING, 1);
+            metrics.deferral(notification.getChannel(), deferral);
+        }
+    }
 
-            logAudit(notification.getId(), "SENT", "Successfully sent via " + notification.getChannel());
+    /**
+     * Whether the channel guard turned the call away before the provider was
+     * called, in which case the rate limit permits taken for it go back.
+     */
+    private static boolean rejectedByGuard(DeliveryDeferredException deferral) {
+        return deferral instanceof CircuitOpenException || deferral instanceof BulkheadFullException;
+    }
 
-        } catch (Exception e) {
-            log.error("Error sending notification {}: {}", notificationId, e.getMessage());
-            handleFailure(notification, e.getMessage());
+    private void checkLatencyTarget(Notification notification) {
+        Duration target = deliveryProperties.laneFor(notification.getPriority()).getLatencyTarget();
+        if (target == null || notification.getCreatedAt() == null) {
+            return;
+        }
+        Duration latency = Duration.between(notification.getCreatedAt(), LocalDateTime.now());
+        if (latency.compareTo(target) > 0) {
+            log.warn("{} notification {} took {} ms to send (target {} ms)", notification.getPriority(),
+                    notification.getId(), latency.toMillis(), target.toMillis());
         }
     }
 
-    private void handleFailure(Notification notification, String error) {
+    private void handleFailure(Notification notification, Exception failure) {
+        String error = failure.getMessage();
+        FailureClass failureClass = failureClassifier.classify(failure);
         notification.setErrorMessage(error);
-        if (notification.getRetryCount() < MAX_RETRIES) {
+        // retryCount counts failed attempts
+        notification.setRetryCount(notification.getRetryCount() + 1);
+
+        String auditStatus;
+        String auditDetails;
+        if (failureClass == FailureClass.PERMANENT) {
+            notification.setStatus(NotificationStatus.FAILED);
+            auditStatus = "FAILED";
+            auditDetails = "Permanent failure, not retrying. Error: " + error;
+        } else if (notification.getRetryCount() <= MAX_RETRIES) {
+            LocalDateTime nextAttemptAt = LocalDateTime.now().plus(retryBackoff.delayFor(notification.getRetryCount()));
             notification.setStatus(NotificationStatus.PENDING); // Back to PENDING for retry
-            logAudit(notification.getId(), "ATTEMPT_FAILED", "Failed: " + error + ". Will retry.");
+            notification.setNextAttemptAt(nextAttemptAt);
+            auditStatus = "ATTEMPT_FAILED";
+            auditDetails = "Failed: " + error + ". Will retry at " + nextAttemptAt;
         } else {
             notification.setStatus(NotificationStatus.FAILED);
-            logAudit(notification.getId(), "FAILED", "Max retries reached. Error: " + error);
+            auditStatus = "FAILED";
+            auditDetails = "Max retries reached. Error: " + error;
+        }
+        metrics.failure(notification.getChannel(), failureClass);
+        if (complete(notification, auditStatus, auditDetails)) {
+            metrics.transition(NotificationStatus.IN_PROGRESS, notification.getStatus(), 1);
         }
-        repository.save(notification);
     }
 
-    @SuppressWarnings("null")
     private void logAudit(UUID notificationId, String status, String details) {
-        auditLogRepository.save(NotificationAuditLog.builder()
-                .notificationId(notificationId)
-                .status(status)
-                .details(details)
-                .build());
+        auditLogWriter.record(notificationId, status, details);
     }
 }
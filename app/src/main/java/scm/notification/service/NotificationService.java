@@ -1,23 +1,49 @@
 package scm.notification.service;
 
+import scm.notification.audit.AuditLogWriter;
+import scm.notification.config.DeliveryProperties;
+import scm.notification.dto.NotificationBatchResponse;
 import scm.notification.dto.NotificationRequest;
 import scm.notification.dto.NotificationResponse;
 import scm.notification.entity.Notification;
 import scm.notification.entity.NotificationAuditLog;
+import scm.notification.enums.NotificationChannel;
+import scm.notification.enums.NotificationPriority;
 import scm.notification.enums.NotificationStatus;
 import scm.notification.event.NotificationCreatedEvent;
-import scm.notification.repository.NotificationAuditLogRepository;
+import scm.notification.exception.IdempotencyConflictException;
+import scm.notification.metrics.NotificationMetrics;
+import scm.notification.repository.NotificationArchiveRepository;
 import scm.notification.repository.NotificationRepository;
+import scm.notification.repository.StuckNotificationView;
+import scm.notification.storage.AttachmentCodec;
+import scm.notification.storage.AttachmentStore;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 
 @Service
@@ -25,91 +51,434 @@ import java.util.UUID;
 @Slf4j
 public class NotificationService {
 
+    // Keyset cursor origin: sorts before every real (updated_at, id) pair
+    private static final LocalDateTime KEYSET_START_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID KEYSET_START_ID = new UUID(0L, 0L);
+
+    private static final String LEASE_EXHAUSTED_ERROR = "Max retries reached: lease expired during the last attempt";
+
     private final NotificationRepository repository;
-    private final NotificationAuditLogRepository auditLogRepository;
+    private final NotificationArchiveRepository archiveRepository;
+    private final AuditLogWriter auditLogWriter;
     private final ApplicationEventPublisher eventPublisher;
-    private final NotificationProcessor notificationProcessor;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final AttachmentStore attachmentStore;
+    private final NotificationStatusCache statusCache;
+    private final IdempotencyCache idempotencyCache;
+    private final DeliveryProperties deliveryProperties;
+    private final NotificationMetrics metrics;
+    private final GroupCommitWriter groupCommitWriter;
+    private final RetryBackoff retryBackoff;
+
+    @Value("${notification.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${notification.retry.scan-batch-size:500}")
+    private int scanBatchSize;
+
+
+    /**
+     * Queues a single notification. The insert goes through
+     * {@link GroupCommitWriter}, which shares one commit between concurrent
+     * triggers. With an idempotency key, a repeated request returns the
+     * current status of the notification created by the first one instead of
+     * inserting again: recent keys are answered from {@link IdempotencyCache},
+     * anything else relies on the unique index, so the first request pays no
+     * extra query. Requests with attachments look the key up before storing
+     * them, so a duplicate never writes blobs.
+     */
+    public NotificationResponse trigger(NotificationRequest request) {
+        String idempotencyKey = request.getIdempotencyKey();
+        if (idempotencyKey == null) {
+            return queued(groupCommitWriter.insert(toNotification(request)));
+        }
+
+        UUID existing = idempotencyCache.get(idempotencyKey);
+        if (existing == null && request.getAttachments() != null && !request.getAttachments().isEmpty()) {
+            existing = repository.findIdByIdempotencyKey(idempotencyKey).orElse(null);
+            if (existing != null) {
+                idempotencyCache.put(idempotencyKey, existing);
+            }
+        }
+        if (existing != null) {
+            log.debug("Duplicate request for idempotency key {}, returning {}", idempotencyKey, existing);
+            return duplicate(existing);
+        }
+
+        try {
+            UUID id = groupCommitWriter.insert(toNotification(request));
+            idempotencyCache.put(idempotencyKey, id);
+            return queued(id);
+        } catch (DataIntegrityViolationException e) {
+            if (!IdempotencyConflictException.isIdempotencyKeyViolation(e)) {
+                throw e;
+            }
+            // Lost the race against an earlier request with the same key (or it is older than the cache);
+            // not found means the other request has not committed yet
+            UUID original = repository.findIdByIdempotencyKey(idempotencyKey)
+                    .orElseThrow(() -> new IdempotencyConflictException(idempotencyKey, e));
+            idempotencyCache.put(idempotencyKey, original);
+            log.debug("Duplicate request for idempotency key {}, returning {}", idempotencyKey, original);
+            return duplicate(original);
+        }
+    }
 
+    /**
+     * Accepts a batch of notifications in a single transaction.
+     * Every entry is validated up front; valid entries are persisted together so
+     * that Hibernate can group the notification, attachment and audit INSERTs
+     * into JDBC batches, while invalid entries are reported back by index.
+     */
     @Transactional
     @SuppressWarnings("null")
-    public NotificationResponse trigger(NotificationRequest request) {
-        Notification notification = Notification.builder()
-                .channel(request.getChannel())
-                .recipient(request.getRecipient())
-                .subject(request.getSubject())
-                .content(request.getContent())
-                .status(NotificationStatus.PENDING)
-                .retryCount(0)
-                .attachments(request.getAttachments())
-                .build();
+    public NotificationBatchResponse triggerBatch(List<NotificationRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one notification");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException(
+                    "Batch size " + requests.size() + " exceeds the maximum of " + maxBatchSize);
+        }
 
-        notification = repository.save(notification);
-        logAudit(notification.getId(), "RECEIVED", "Notification request accepted");
+        NotificationBatchResponse.Item[] results = new NotificationBatchResponse.Item[requests.size()];
+        List<Integer> candidates = new ArrayList<>(requests.size());
+        // Idempotency key -> index of its first valid entry; later entries with the key repeat it
+        Map<String, Integer> firstByKey = new HashMap<>();
+        List<Integer> repeated = new ArrayList<>();
 
-        // Publish event to trigger async processing
-        eventPublisher.publishEvent(new NotificationCreatedEvent(notification.getId()));
+        for (int i = 0; i < requests.size(); i++) {
+            NotificationRequest request = requests.get(i);
+            Map<String, String> errors = validate(request);
+            if (!errors.isEmpty()) {
+                results[i] = NotificationBatchResponse.Item.builder()
+                        .index(i)
+                        .errors(errors)
+                        .build();
+            } else if (request.getIdempotencyKey() != null
+                    && firstByKey.putIfAbsent(request.getIdempotencyKey(), i) != null) {
+                repeated.add(i);
+            } else {
+                candidates.add(i);
+            }
+        }
 
-        return NotificationResponse.builder()
-                .id(notification.getId().toString())
-                .status(NotificationStatus.PENDING)
-                .message("Notification queued for delivery")
+        Map<String, UUID> idsByKey = resolveIdempotencyKeys(firstByKey.keySet());
+        List<Notification> notifications = new ArrayList<>(candidates.size());
+        List<Integer> positions = new ArrayList<>(candidates.size());
+        int duplicates = 0;
+        for (int index : candidates) {
+            NotificationRequest request = requests.get(index);
+            UUID existing = request.getIdempotencyKey() != null ? idsByKey.get(request.getIdempotencyKey()) : null;
+            if (existing != null) {
+                results[index] = duplicateItem(index, existing);
+                duplicates++;
+            } else {
+                notifications.add(fanOutCandidate(toNotification(request)));
+                positions.add(index);
+            }
+        }
+
+        List<Notification> saved = repository.saveAll(notifications);
+        metrics.transition(null, NotificationStatus.PENDING, saved.size());
+        auditLogWriter.recordAll(saved.stream()
+                .map(n -> auditEntry(n.getId(), "RECEIVED", "Notification request accepted (batch)"))
+                .toList());
+
+        for (int i = 0; i < saved.size(); i++) {
+            Notification notification = saved.get(i);
+            int index = positions.get(i);
+            results[index] = NotificationBatchResponse.Item.builder()
+                    .index(index)
+                    .id(notification.getId().toString())
+                    .status(NotificationStatus.PENDING)
+                    .build();
+            if (notification.getIdempotencyKey() != null) {
+                idsByKey.put(notification.getIdempotencyKey(), notification.getId());
+                idempotencyCache.put(notification.getIdempotencyKey(), notification.getId());
+            }
+            if (notification.getContentFingerprint() == null) {
+                eventPublisher.publishEvent(
+                        new NotificationCreatedEvent(notification.getId(), notification.getPriority()));
+            }
+        }
+        for (int index : repeated) {
+            results[index] = duplicateItem(index, idsByKey.get(requests.get(index).getIdempotencyKey()));
+            duplicates++;
+        }
+
+        return NotificationBatchResponse.builder()
+                .accepted(saved.size())
+                .duplicates(duplicates)
+                .rejected(requests.size() - saved.size() - duplicates)
+                .results(Arrays.asList(results))
                 .build();
     }
 
-    @Transactional(readOnly = true)
-    @SuppressWarnings("null")
+    /**
+     * Answers status polls from the in-process cache, falling back to a
+     * projection query (no content, no attachments) on a miss.
+     */
     public NotificationResponse getStatus(String id) {
-        Notification notification = repository.findById(UUID.fromString(id))
-                .orElseThrow(() -> new IllegalArgumentException("Notification not found with ID: " + id));
+        NotificationStatusCache.Entry entry = findStatus(UUID.fromString(id));
+        if (entry == null) {
+            throw new IllegalArgumentException("Notification not found with ID: " + id);
+        }
+        return statusResponse(entry);
+    }
+
+    @SuppressWarnings("null")
+    private NotificationStatusCache.Entry findStatus(UUID id) {
+        return statusCache.get(id, notificationId -> repository
+                .findStatusById(notificationId)
+                // Finished notifications past the retention window live in the archive
+                .or(() -> archiveRepository.findStatusById(notificationId))
+                .map(view -> new NotificationStatusCache.Entry(view.getId(), view.getStatus(), view.getErrorMessage()))
+                .orElse(null));
+    }
 
+    private static NotificationResponse statusResponse(NotificationStatusCache.Entry entry) {
         return NotificationResponse.builder()
-                .id(notification.getId().toString())
-                .status(notification.getStatus())
-                .message(notification.getErrorMessage() != null ? notification.getErrorMessage()
-                        : "Status: " + notification.getStatus())
+                .id(entry.id().toString())
+                .status(entry.status())
+                .message(entry.errorMessage() != null ? entry.errorMessage()
+                        : "Status: " + entry.status())
                 .build();
     }
 
-    @Scheduled(fixedRate = 60000) // Check every minute
+    /**
+     * Lease recovery: an IN_PROGRESS row untouched for longer than its lane's
+     * lease timeout belongs to a worker that died mid-attempt. Such rows are
+     * counted as a failed attempt and made due again after the same backoff as
+     * any failed attempt of that number; the dispatcher does the retry. Lanes
+     * are scanned highest priority first.
+     */
+    @Scheduled(fixedRateString = "${notification.retry.scan-interval-ms:60000}")
     public void processPendingNotifications() {
-        log.debug("Checking for pending/stuck notifications...");
-        LocalDateTime tenMinutesAgo = LocalDateTime.now().minusMinutes(10);
-
-        List<NotificationStatus> statuses = Arrays.asList(NotificationStatus.PENDING, NotificationStatus.IN_PROGRESS);
-        List<Notification> pending = repository.findPendingNotifications(statuses, tenMinutesAgo);
-
-        if (pending.isEmpty()) {
-            return;
-        }
-
-        log.info("Found {} stuck notifications to retry.", pending.size());
-        for (Notification n : pending) {
-            try {
-                // Retrigger processing
-                n.setRetryCount(n.getRetryCount() + 1);
-                repository.save(n); // Increment count first
-                logAudit(n.getId(), "RETRYING", "Retry attempt " + n.getRetryCount());
-
-                // We call processor directly (it handles async internally)
-                UUID notificationId = n.getId();
-                if (notificationId != null) {
-                    notificationProcessor.process(notificationId);
-                } else {
-                    log.error("Notification has null ID, skipping: {}", n);
-                }
-            } catch (Exception e) {
-                log.error("Failed to process stuck notification {}", n.getId(), e);
+        log.debug("Checking for stuck notifications...");
+        LocalDateTime now = LocalDateTime.now();
+
+        int recovered = 0;
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            Duration leaseTimeout = deliveryProperties.laneFor(priority).getLeaseTimeout();
+            recovered += scanStuck(priority, now.minus(leaseTimeout));
+        }
+
+        if (recovered > 0) {
+            log.info("Requeued {} stuck notifications.", recovered);
+        }
+    }
+
+    /**
+     * Walks stuck rows of one priority in bounded keyset pages over the
+     * (status, priority, updated_at, id) index. Each page is handled in its own
+     * short transaction with one bulk UPDATE per outcome and one batched audit
+     * write, so memory stays constant however large the backlog is.
+     */
+    @SuppressWarnings("null")
+    private int scanStuck(NotificationPriority priority, LocalDateTime cutoff) {
+        LocalDateTime afterUpdatedAt = KEYSET_START_TIME;
+        UUID afterId = KEYSET_START_ID;
+        int recovered = 0;
+
+        while (true) {
+            LocalDateTime pageAfterUpdatedAt = afterUpdatedAt;
+            UUID pageAfterId = afterId;
+            ScanPage page = transactionTemplate.execute(
+                    tx -> recoverStuckPage(priority, cutoff, pageAfterUpdatedAt, pageAfterId));
+
+            recovered += page.requeued();
+
+            if (page.size() < scanBatchSize) {
+                return recovered;
             }
+            afterUpdatedAt = page.lastUpdatedAt();
+            afterId = page.lastId();
         }
     }
 
     @SuppressWarnings("null")
-    private void logAudit(UUID notificationId, String status, String details) {
-        NotificationAuditLog auditLog = NotificationAuditLog.builder()
+    private ScanPage recoverStuckPage(NotificationPriority priority, LocalDateTime cutoff,
+            LocalDateTime afterUpdatedAt, UUID afterId) {
+        List<StuckNotificationView> page = repository.findStuckPage(NotificationStatus.IN_PROGRESS, priority,
+                cutoff, afterUpdatedAt, afterId, PageRequest.of(0, scanBatchSize));
+        if (page.isEmpty()) {
+            return new ScanPage(0, 0, afterUpdatedAt, afterId);
+        }
+
+        // Lost attempt number -> rows to requeue; each group backs off like a failed attempt of that number
+        Map<Integer, List<UUID>> requeue = new TreeMap<>();
+        List<UUID> exhausted = new ArrayList<>();
+        List<NotificationAuditLog> audits = new ArrayList<>(page.size());
+        LocalDateTime now = LocalDateTime.now();
+
+        for (StuckNotificationView view : page) {
+            int attempts = view.getRetryCount() + 1;
+            if (attempts > NotificationProcessor.MAX_RETRIES) {
+                exhausted.add(view.getId());
+                audits.add(auditEntry(view.getId(), "FAILED", LEASE_EXHAUSTED_ERROR));
+            } else {
+                requeue.computeIfAbsent(attempts, a -> new ArrayList<>()).add(view.getId());
+            }
+        }
+
+        int requeued = 0;
+        for (Map.Entry<Integer, List<UUID>> group : requeue.entrySet()) {
+            LocalDateTime nextAttemptAt = now.plus(retryBackoff.delayFor(group.getKey()));
+            repository.bulkRequeue(group.getValue(), nextAttemptAt, now);
+            for (UUID id : group.getValue()) {
+                // Applied once the page commits; the row keeps the error of an earlier attempt, if any
+                statusCache.invalidate(id);
+                audits.add(auditEntry(id, "RETRYING",
+                        "Lease expired, retry attempt " + group.getKey() + " at " + nextAttemptAt));
+            }
+            requeued += group.getValue().size();
+        }
+        if (requeued > 0) {
+            metrics.transition(NotificationStatus.IN_PROGRESS, NotificationStatus.PENDING, requeued);
+        }
+        if (!exhausted.isEmpty()) {
+            repository.bulkTransition(exhausted, NotificationStatus.FAILED, LEASE_EXHAUSTED_ERROR, 1, now);
+            exhausted.forEach(id -> statusCache.update(id, NotificationStatus.FAILED, LEASE_EXHAUSTED_ERROR));
+            metrics.transition(NotificationStatus.IN_PROGRESS, NotificationStatus.FAILED, exhausted.size());
+        }
+        auditLogWriter.recordAll(audits);
+
+        StuckNotificationView last = page.get(page.size() - 1);
+        return new ScanPage(requeued, page.size(), last.getUpdatedAt(), last.getId());
+    }
+
+    /**
+     * Maps the keys to notifications that already exist, answering from the
+     * cache where possible and with a single IN query for the rest.
+     */
+    private Map<String, UUID> resolveIdempotencyKeys(Set<String> idempotencyKeys) {
+        Map<String, UUID> idsByKey = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String key : idempotencyKeys) {
+            UUID cached = idempotencyCache.get(key);
+            if (cached != null) {
+                idsByKey.put(key, cached);
+            } else {
+                misses.add(key);
+            }
+        }
+        if (!misses.isEmpty()) {
+            repository.findByIdempotencyKeys(misses)
+                    .forEach(view -> idsByKey.put(view.getIdempotencyKey(), view.getId()));
+        }
+        return idsByKey;
+    }
+
+    private static NotificationBatchResponse.Item duplicateItem(int index, UUID notificationId) {
+        return NotificationBatchResponse.Item.builder()
+                .index(index)
+                .id(notificationId.toString())
+                .status(NotificationStatus.PENDING)
+                .duplicate(true)
+                .build();
+    }
+
+    /**
+     * Answers a repeated request with where the original notification is now,
+     * e.g. SENT or FAILED with its error, rather than as if it was just queued.
+     */
+    private NotificationResponse duplicate(UUID originalId) {
+        NotificationStatusCache.Entry entry = findStatus(originalId);
+        // Purged from the archive since: nothing left to report but the ID
+        return entry != null ? statusResponse(entry) : queued(originalId);
+    }
+
+    private static NotificationResponse queued(UUID notificationId) {
+        return NotificationResponse.builder()
+                .id(notificationId.toString())
+                .status(NotificationStatus.PENDING)
+                .message("Notification queued for delivery")
+                .build();
+    }
+
+    private Notification toNotification(NotificationRequest request) {
+        NotificationPriority priority = request.getPriority() != null ? request.getPriority()
+                : NotificationPriority.NORMAL;
+        return Notification.builder()
+                .channel(request.getChannel())
+                .recipient(request.getRecipient())
+                .subject(request.getSubject())
+                .content(request.getContent())
+                .idempotencyKey(request.getIdempotencyKey())
+                .status(NotificationStatus.PENDING)
+                .retryCount(0)
+                .priority(priority)
+                // New rows are left to the in-memory fast path for the lane's grace period
+                .nextAttemptAt(LocalDateTime.now().plus(deliveryProperties.laneFor(priority).getGracePeriod()))
+                .attachments(storeAttachments(request.getAttachments()))
+                .build();
+    }
+
+    /**
+     * With fan-out enabled, batch-triggered emails are fingerprinted and left to
+     * the dispatcher, which groups identical ones into multi-recipient messages.
+     * They skip the fast path, so they are due right away instead of after the
+     * grace period.
+     */
+    private Notification fanOutCandidate(Notification notification) {
+        if (deliveryProperties.getFanOut().isEnabled() && notification.getChannel() == NotificationChannel.EMAIL) {
+            notification.setContentFingerprint(ContentFingerprint.of(notification.getSubject(),
+                    notification.getContent(), notification.getAttachments()));
+            notification.setNextAttemptAt(LocalDateTime.now());
+        }
+        return notification;
+    }
+
+    /**
+     * Streams each decoded attachment once at ingest into the content-addressed
+     * store; the notification only keeps filename -> SHA-256 references.
+     */
+    private Map<String, String> storeAttachments(Map<String, String> attachments) {
+        Map<String, String> references = new HashMap<>();
+        if (attachments == null) {
+            return references;
+        }
+        for (Map.Entry<String, String> entry : attachments.entrySet()) {
+            if (entry.getValue() == null) {
+                continue;
+            }
+            try (InputStream content = AttachmentCodec.open(entry.getValue())) {
+                references.put(entry.getKey(), attachmentStore.put(content));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to store attachment " + entry.getKey(), e);
+            }
+        }
+        return references;
+    }
+
+    /**
+     * Runs bean validation for one batch entry and returns field errors keyed the
+     * same way {@code GlobalExceptionHandler} reports them for single requests.
+     */
+    private Map<String, String> validate(NotificationRequest request) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        if (request == null) {
+            errors.put("notificationRequest", "Notification request is required");
+            return errors;
+        }
+        Set<ConstraintViolation<NotificationRequest>> violations = validator.validate(request);
+        for (ConstraintViolation<NotificationRequest> violation : violations) {
+            String path = violation.getPropertyPath().toString();
+            errors.put(path.isEmpty() ? "notificationRequest" : path, violation.getMessage());
+        }
+        return errors;
+    }
+
+    private NotificationAuditLog auditEntry(UUID notificationId, String status, String details) {
+        return NotificationAuditLog.builder()
                 .notificationId(notificationId)
                 .status(status)
                 .details(details)
+                .timestamp(LocalDateTime.now())
                 .build();
-        auditLogRepository.save(auditLog);
+    }
+
+    private record ScanPage(int requeued, int size, LocalDateTime lastUpdatedAt, UUID lastId) {
     }
 }
@@ -0,0 +1,95 @@
+package scm.notification.service;
+
+import scm.notification.enums.NotificationStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * In-process read-through cache for status polling.
+ *
+ * Holds only id, status and error message. Terminal states (SENT/FAILED) never
+ * change again and are kept for terminal-ttl-ms; in-flight states are kept
+ * only briefly so that transitions made on other replicas show up quickly.
+ * Transitions made on this node are written through after their transaction
+ * commits.
+ */
+@Component
+public class NotificationStatusCache {
+
+    public record Entry(UUID id, NotificationStatus status, String errorMessage) {
+        boolean isTerminal() {
+            return status == NotificationStatus.SENT || status == NotificationStatus.FAILED;
+        }
+    }
+
+    private final Cache<UUID, Entry> cache;
+
+    public NotificationStatusCache(@Value("${notification.status-cache.max-size:100000}") long maxSize,
+            @Value("${notification.status-cache.ttl-ms:2000}") long ttlMs,
+            @Value("${notification.status-cache.terminal-ttl-ms:600000}") long terminalTtlMs) {
+        long ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        long terminalTtlNanos = TimeUnit.MILLISECONDS.toNanos(terminalTtlMs);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<UUID, Entry>() {
+                    @Override
+                    public long expireAfterCreate(UUID key, Entry value, long currentTime) {
+                        return value.isTerminal() ? terminalTtlNanos : ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(UUID key, Entry value, long currentTime, long currentDuration) {
+                        return value.isTerminal() ? terminalTtlNanos : ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(UUID key, Entry value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Returns the cached entry, loading it on a miss. Returns null (and caches
+     * nothing) when the loader finds no notification.
+     */
+    public Entry get(UUID id, Function<UUID, Entry> loader) {
+        return cache.get(id, loader);
+    }
+
+    /**
+     * Records a status transition once the surrounding transaction commits, or
+     * immediately when there is none.
+     */
+    public void update(UUID id, NotificationStatus status, String errorMessage) {
+        Entry entry = new Entry(id, status, errorMessage);
+        afterCommit(() -> cache.put(id, entry));
+    }
+
+    public void invalidate(UUID id) {
+        afterCommit(() -> cache.invalidate(id));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package scm.notification.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter for transient delivery failures.
+ * The n-th retry waits base * 2^(n-1), capped at max-delay; half of that is
+ * fixed and the other half is random so retries from a burst of failures
+ * spread out instead of hitting the provider again in lockstep.
+ */
+@Component
+public class RetryBackoff {
+
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    public RetryBackoff(@Value("${notification.retry.base-delay-ms:5000}") long baseDelayMs,
+            @Value("${notification.retry.max-delay-ms:300000}") long maxDelayMs) {
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    /**
+     * @param attempt 1-based number of the failed attempt
+     */
+    public Duration delayFor(int attempt) {
+        int exponent = Math.min(Math.max(attempt, 1) - 1, 30);
+        long delay = Math.min(maxDelayMs, baseDelayMs << exponent);
+        long half = delay / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+}
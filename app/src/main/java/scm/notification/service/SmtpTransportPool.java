@@ -0,0 +1,184 @@
+package scm.notification.service;
+
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool of authenticated SMTP connections.
+ *
+ * JavaMailSender opens a new TCP + STARTTLS + AUTH session for every message.
+ * This pool keeps connections open and sends many messages over each one, up to
+ * a per-connection message limit. Idle connections are validated with NOOP
+ * before reuse and evicted once they have been idle for too long. Connection
+ * settings (host, port, credentials, timeouts, STARTTLS) come from the
+ * auto-configured JavaMailSenderImpl, i.e. the existing spring.mail.* settings.
+ */
+@Component
+@Slf4j
+public class SmtpTransportPool implements DisposableBean {
+
+    private final JavaMailSenderImpl mailSender;
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final Semaphore capacity;
+    private final int maxMessagesPerConnection;
+    private final long maxIdleMs;
+    private final long validationIntervalMs;
+    private final long borrowTimeoutMs;
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender,
+            @Value("${notification.email.pool.max-size:20}") int maxSize,
+            @Value("${notification.email.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+            @Value("${notification.email.pool.max-idle-ms:60000}") long maxIdleMs,
+            @Value("${notification.email.pool.validation-interval-ms:5000}") long validationIntervalMs,
+            @Value("${notification.email.pool.borrow-timeout-ms:10000}") long borrowTimeoutMs) {
+        this.mailSender = mailSender;
+        this.capacity = new Semaphore(maxSize, true);
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.maxIdleMs = maxIdleMs;
+        this.validationIntervalMs = validationIntervalMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+    }
+
+    /**
+     * Sends the message over a pooled connection to all of its recipients.
+     *
+     * @throws MessagingException if no connection could be obtained or the SMTP
+     *                            exchange failed
+     */
+    public void send(MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        message.saveChanges();
+        Address[] recipients = message.getAllRecipients();
+
+        PooledTransport pooled = borrow();
+        boolean reusable = false;
+        try {
+            pooled.transport.sendMessage(message, recipients);
+            pooled.messagesSent++;
+            reusable = pooled.messagesSent < maxMessagesPerConnection;
+        } finally {
+            // After a failed exchange the connection state is unknown, so it is discarded
+            release(pooled, reusable);
+        }
+    }
+
+    public int idleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Closes connections that have been idle for longer than max-idle-ms.
+     */
+    @Scheduled(fixedDelayString = "${notification.email.pool.eviction-interval-ms:30000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        int evicted = 0;
+        for (PooledTransport pooled : idle) {
+            if (now - pooled.lastUsedAt > maxIdleMs && idle.removeFirstOccurrence(pooled)) {
+                close(pooled);
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            log.debug("[SMTP POOL] Evicted {} idle connections", evicted);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            close(pooled);
+        }
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        try {
+            if (!capacity.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("Timed out waiting for a pooled SMTP connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for a pooled SMTP connection", e);
+        }
+
+        try {
+            // Most recently used first: keeps a few connections hot and lets the rest idle out
+            PooledTransport pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    return pooled;
+                }
+                close(pooled);
+            }
+            return open();
+        } catch (MessagingException | RuntimeException e) {
+            capacity.release();
+            throw e;
+        }
+    }
+
+    private void release(PooledTransport pooled, boolean reusable) {
+        try {
+            if (reusable) {
+                pooled.lastUsedAt = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+            } else {
+                close(pooled);
+            }
+        } finally {
+            capacity.release();
+        }
+    }
+
+    private boolean isUsable(PooledTransport pooled) {
+        long idleFor = System.currentTimeMillis() - pooled.lastUsedAt;
+        if (idleFor > maxIdleMs) {
+            return false;
+        }
+        // SMTPTransport.isConnected() issues a NOOP, so only check connections that sat idle
+        return idleFor < validationIntervalMs || pooled.transport.isConnected();
+    }
+
+    private PooledTransport open() throws MessagingException {
+        String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp";
+        Transport transport = mailSender.getSession().getTransport(protocol);
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(),
+                mailSender.getPassword());
+        log.debug("[SMTP POOL] Opened new connection to {}:{}", mailSender.getHost(), mailSender.getPort());
+        return new PooledTransport(transport);
+    }
+
+    private void close(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            log.debug("[SMTP POOL] Error closing connection: {}", e.getMessage());
+        }
+    }
+
+    private static final class PooledTransport {
+        private final Transport transport;
+        private int messagesSent;
+        private long lastUsedAt = System.currentTimeMillis();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package scm.notification.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.unbescape.html.HtmlEscape;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Cache of rendered email bodies for broadcast traffic.
+ *
+ * Entries are keyed by template name plus a SHA-256 of every variable except
+ * the per-recipient one. On a miss the template is rendered once with a unique
+ * marker in place of the recipient and the output is split around it; every
+ * later recipient only costs a string join. The per-recipient variable must
+ * only be printed with th:text (it is HTML-escaped the same way when spliced).
+ */
+@Component
+@Slf4j
+public class TemplateRenderCache {
+
+    private final TemplateEngine templateEngine;
+    private final Cache<RenderKey, String[]> cache;
+    private final String marker = "RCPT" + UUID.randomUUID().toString().replace("-", "");
+    private final Pattern markerPattern = Pattern.compile(marker, Pattern.LITERAL);
+
+    public TemplateRenderCache(TemplateEngine templateEngine,
+            @Value("${notification.email.render-cache.max-size:1000}") long maxSize,
+            @Value("${notification.email.render-cache.ttl-ms:600000}") long ttlMs) {
+        this.templateEngine = templateEngine;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+    }
+
+    /**
+     * Renders the template, reusing a cached rendering when only the recipient
+     * variable differs from an earlier call.
+     *
+     * @param templateName      Template name (without .html extension)
+     * @param variables         Template variables, including the recipient one
+     * @param recipientVariable Name of the per-recipient variable
+     * @return Rendered HTML, and whether it came from the cache
+     */
+    public Rendered render(String templateName, Map<String, Object> variables, String recipientVariable) {
+        Object recipient = variables.get(recipientVariable);
+        if (recipient == null) {
+            // th:if / null-handling in the template would not match the marker rendering
+            return new Rendered(templateEngine.process(templateName, contextOf(variables)), false);
+        }
+
+        Map<String, Object> shared = new HashMap<>(variables);
+        shared.remove(recipientVariable);
+        RenderKey key = new RenderKey(templateName, recipientVariable, hash(shared));
+
+        boolean[] rendered = new boolean[1];
+        String[] segments = cache.get(key, k -> {
+            rendered[0] = true;
+            log.debug("[RENDER CACHE] Rendering template '{}' for a new variable set", templateName);
+            shared.put(recipientVariable, marker);
+            return markerPattern.split(templateEngine.process(templateName, contextOf(shared)), -1);
+        });
+
+        return new Rendered(splice(segments, HtmlEscape.escapeHtml4Xml(recipient.toString())), !rendered[0]);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static String splice(String[] segments, String value) {
+        if (segments.length == 1) {
+            return segments[0];
+        }
+        int length = value.length() * (segments.length - 1);
+        for (String segment : segments) {
+            length += segment.length();
+        }
+        StringBuilder html = new StringBuilder(length);
+        html.append(segments[0]);
+        for (int i = 1; i < segments.length; i++) {
+            html.append(value).append(segments[i]);
+        }
+        return html.toString();
+    }
+
+    private static Context contextOf(Map<String, Object> variables) {
+        Context context = new Context();
+        context.setVariables(variables);
+        return context;
+    }
+
+    private static String hash(Map<String, Object> variables) {
+        MessageDigest digest = sha256();
+        for (Map.Entry<String, Object> entry : new TreeMap<>(variables).entrySet()) {
+            update(digest, entry.getKey());
+            update(digest, String.valueOf(entry.getValue()));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Length-prefixed so that ("ab", "c") and ("a", "bc") never collide
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * @param html   Rendered HTML
+     * @param cached True when an earlier rendering was reused, false when this call rendered the template
+     */
+    public record Rendered(String html, boolean cached) {
+    }
+
+    private record RenderKey(String templateName, String recipientVariable, String variablesHash) {
+    }
+}
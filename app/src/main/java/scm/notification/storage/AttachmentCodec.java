@@ -0,0 +1,112 @@
+package scm.notification.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Decodes attachment payloads as they arrive in {@code NotificationRequest}.
+ *
+ * Base64 content is decoded as a stream straight from the request string:
+ * whitespace is skipped on the fly instead of with a regex pass, and no
+ * intermediate sanitized copy or full decoded byte[] is materialised. Whether
+ * the payload is Base64 at all is decided with a single allocation-free scan,
+ * so plain-text attachments never pay for a failed decode.
+ */
+public final class AttachmentCodec {
+
+    private AttachmentCodec() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Opens the decoded bytes of an attachment: Base64 content (images, PDFs, ...)
+     * is decoded lazily, anything else is treated as UTF-8 text (ics, txt, html).
+     */
+    public static InputStream open(String content) {
+        if (isBase64(content)) {
+            return Base64.getDecoder().wrap(new Base64CharsInputStream(content));
+        }
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns true if the content, ignoring whitespace, is accepted by the basic
+     * Base64 decoder: alphabet characters only, optional correct padding at the
+     * end, and no dangling single character in the final unit.
+     */
+    public static boolean isBase64(CharSequence content) {
+        int data = 0;
+        int padding = 0;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (isWhitespace(c)) {
+                continue;
+            }
+            if (c == '=') {
+                padding++;
+                continue;
+            }
+            if (padding > 0 || !isAlphabet(c)) {
+                return false;
+            }
+            data++;
+        }
+        if (data % 4 == 1) {
+            return false;
+        }
+        return padding == 0 || (padding <= 2 && (data + padding) % 4 == 0);
+    }
+
+    private static boolean isAlphabet(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '+' || c == '/';
+    }
+
+    // Same set as the regex \s the payloads used to be sanitised with
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Exposes the non-whitespace characters of a validated Base64 string as ASCII
+     * bytes without copying the string.
+     */
+    private static final class Base64CharsInputStream extends InputStream {
+
+        private final CharSequence source;
+        private int position;
+
+        private Base64CharsInputStream(CharSequence source) {
+            this.source = source;
+        }
+
+        @Override
+        public int read() {
+            while (position < source.length()) {
+                char c = source.charAt(position++);
+                if (!isWhitespace(c)) {
+                    return c;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            Objects.checkFromIndexSize(offset, length, buffer.length);
+            if (length == 0) {
+                return 0;
+            }
+            int count = 0;
+            while (count < length && position < source.length()) {
+                char c = source.charAt(position++);
+                if (!isWhitespace(c)) {
+                    buffer[offset + count++] = (byte) c;
+                }
+            }
+            return count == 0 ? -1 : count;
+        }
+    }
+}
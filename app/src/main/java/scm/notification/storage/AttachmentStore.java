@@ -0,0 +1,47 @@
+package scm.notification.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Content-addressed blob store for notification attachments.
+ * Blobs are keyed by the SHA-256 of their bytes, so identical attachments sent
+ * to many recipients are stored once and notifications only keep the key.
+ * Blobs nothing refers to any more are removed by
+ * {@link scm.notification.service.AttachmentCollector}.
+ */
+public interface AttachmentStore {
+
+    /**
+     * Stores the content and returns its SHA-256 (lower-case hex). Storing
+     * content that already exists only refreshes its stored time and returns
+     * the same key.
+     */
+    String put(InputStream content) throws IOException;
+
+    /**
+     * Returns a resource that opens a fresh stream over the stored blob on every
+     * call, suitable for MimeMessageHelper attachments.
+     *
+     * @throws IllegalStateException if no blob is stored under the key
+     */
+    Resource get(String hash);
+
+    boolean exists(String hash);
+
+    /**
+     * Passes the key of every blob last stored before the cutoff to the action.
+     */
+    void forEachStoredBefore(Instant cutoff, Consumer<String> action) throws IOException;
+
+    /**
+     * Deletes the blob unless it has been stored (again) since the cutoff.
+     *
+     * @return true if the blob was deleted
+     */
+    boolean deleteIfStoredBefore(String hash, Instant cutoff) throws IOException;
+}
@@ -0,0 +1,161 @@
+package scm.notification.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * {@link AttachmentStore} backed by a local (or shared) directory.
+ *
+ * Blobs live under {@code <root>/<2 hex>/<2 hex>/<sha-256>}. Content is streamed
+ * into a temporary file while it is hashed and then atomically moved into
+ * place, so readers never observe a partially written blob. When several
+ * replicas run, the directory must be a shared volume.
+ *
+ * A blob's modification time is the last time it was stored: storing existing
+ * content touches the file. Deletion first moves the blob aside and checks that
+ * time again, so a blob stored concurrently with its deletion is put back, and
+ * a store that finds the blob gone mid-way writes it anew.
+ */
+@Component
+@Slf4j
+public class FileSystemAttachmentStore implements AttachmentStore {
+
+    private static final Pattern SHA256_HEX = Pattern.compile("^[0-9a-f]{64}$");
+
+    private final Path root;
+    private final Path tempDir;
+
+    public FileSystemAttachmentStore(@Value("${notification.attachments.store-dir:./data/attachments}") String rootDir) {
+        this.root = Paths.get(rootDir).toAbsolutePath().normalize();
+        this.tempDir = root.resolve("tmp");
+        try {
+            Files.createDirectories(tempDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create attachment store at " + root, e);
+        }
+        log.info("Attachment store at {}", root);
+    }
+
+    @Override
+    public String put(InputStream content) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(tempDir, "upload-", ".part");
+        try {
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                content.transferTo(out);
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathFor(hash);
+            if (Files.exists(target)) {
+                try {
+                    // Keeps the blob clear of the collector's grace period
+                    Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                    return hash;
+                } catch (NoSuchFileException e) {
+                    // Deleted in the meantime; store it again
+                }
+            }
+
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // A concurrent upload of the same content won the race; identical bytes either way
+            }
+            return hash;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Resource get(String hash) {
+        Path path = pathFor(hash);
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalStateException("Attachment blob not found: " + hash);
+        }
+        return new FileSystemResource(path);
+    }
+
+    @Override
+    public boolean exists(String hash) {
+        return Files.isRegularFile(pathFor(hash));
+    }
+
+    @Override
+    public void forEachStoredBefore(Instant cutoff, Consumer<String> action) throws IOException {
+        FileTime before = FileTime.from(cutoff);
+        try (Stream<Path> blobs = Files.find(root, 3, (path, attributes) -> attributes.isRegularFile()
+                && SHA256_HEX.matcher(path.getFileName().toString()).matches()
+                && attributes.lastModifiedTime().compareTo(before) < 0)) {
+            blobs.forEach(path -> action.accept(path.getFileName().toString()));
+        }
+    }
+
+    @Override
+    public boolean deleteIfStoredBefore(String hash, Instant cutoff) throws IOException {
+        Path target = pathFor(hash);
+        Path doomed = tempDir.resolve(hash + ".deleting");
+        try {
+            Files.move(target, doomed, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        try {
+            FileTime storedAt = Files.readAttributes(doomed, BasicFileAttributes.class).lastModifiedTime();
+            if (storedAt.compareTo(FileTime.from(cutoff)) >= 0) {
+                // Stored again just before it was moved aside
+                try {
+                    Files.move(doomed, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // Stored anew after it was moved aside; identical bytes either way
+                }
+                return false;
+            }
+            log.debug("Deleted attachment blob {}", hash);
+            return true;
+        } finally {
+            Files.deleteIfExists(doomed);
+        }
+    }
+
+    private Path pathFor(String hash) {
+        if (hash == null || !SHA256_HEX.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Invalid attachment key: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -17,13 +17,20 @@ public class RecipientValidator implements ConstraintValidator<ValidRecipient, N
         if (request.getChannel() == null || request.getRecipient() == null) {
             return true; // Let @NotNull handle nulls
         }
+        return isValidRecipient(request.getChannel(), request.getRecipient());
+    }
 
-        if (request.getChannel() == NotificationChannel.EMAIL) {
-            return EMAIL_PATTERN.matcher(request.getRecipient()).matches();
+    /**
+     * The recipient format rules on their own, for callers that validate
+     * recipients without building a request for each (campaign uploads).
+     */
+    public static boolean isValidRecipient(NotificationChannel channel, String recipient) {
+        if (channel == NotificationChannel.EMAIL) {
+            return EMAIL_PATTERN.matcher(recipient).matches();
         }
 
-        if (request.getChannel() == NotificationChannel.SMS || request.getChannel() == NotificationChannel.WHATSAPP) {
-            return PHONE_PATTERN.matcher(request.getRecipient()).matches();
+        if (channel == NotificationChannel.SMS || channel == NotificationChannel.WHATSAPP) {
+            return PHONE_PATTERN.matcher(recipient).matches();
         }
 
         return true; // Push tokens can be anything
@@ -0,0 +1,56 @@
+package scm.notification.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void setsVersionVariantAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.next();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        long timestamp = id.getMostSignificantBits() >>> 16;
+        // The counter may have pushed the timestamp a few milliseconds ahead under load
+        assertTrue(timestamp >= before && timestamp <= after + 10, "timestamp " + timestamp);
+    }
+
+    @Test
+    void binaryFormSortsInGenerationOrder() {
+        byte[] previous = toBytes(UuidV7Generator.next());
+        Set<UUID> seen = new HashSet<>();
+        // Far more than 4096 IDs, so some milliseconds overflow the counter
+        for (int i = 0; i < 100_000; i++) {
+            UUID id = UuidV7Generator.next();
+            byte[] current = toBytes(id);
+            assertTrue(Arrays.compareUnsigned(previous, current) < 0, "not increasing at " + id);
+            assertTrue(seen.add(id));
+            previous = current;
+        }
+    }
+
+    @Test
+    void roundTripsThroughString() {
+        UUID id = UuidV7Generator.next();
+
+        assertEquals(id, UUID.fromString(id.toString()));
+        assertEquals('7', id.toString().charAt(14));
+    }
+
+    // The BINARY(16) column value
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
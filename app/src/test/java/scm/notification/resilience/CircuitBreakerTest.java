@@ -0,0 +1,104 @@
+package scm.notification.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CircuitBreakerTest {
+
+    @Test
+    void opensOnceFailureRateCrossesThresholdAfterMinimumCalls() {
+        CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, Duration.ofMinutes(1), 1);
+
+        for (int i = 0; i < 3; i++) {
+            CircuitBreaker.Permit permit = breaker.tryAcquire();
+            assertNotNull(permit);
+            breaker.onFailure(permit);
+        }
+        // Below minimum calls: still closed
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        CircuitBreaker.Permit permit = breaker.tryAcquire();
+        assertNotNull(permit);
+        breaker.onFailure(permit);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertNull(breaker.tryAcquire());
+    }
+
+    @Test
+    void halfOpenProbesCloseOnSuccessAndReopenOnFailure() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(4, 2, 0.5, Duration.ofMillis(20), 2);
+        tripOpen(breaker);
+
+        Thread.sleep(40);
+        CircuitBreaker.Permit first = breaker.tryAcquire();
+        assertNotNull(first);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        CircuitBreaker.Permit second = breaker.tryAcquire();
+        assertNotNull(second);
+        // Both probes in flight
+        assertNull(breaker.tryAcquire());
+
+        breaker.onSuccess(first);
+        breaker.onSuccess(second);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        tripOpen(breaker);
+        Thread.sleep(40);
+        CircuitBreaker.Permit probe = breaker.tryAcquire();
+        assertNotNull(probe);
+        breaker.onFailure(probe);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    @Test
+    void callsAdmittedBeforeTheTripDoNotCountAsProbes() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(4, 2, 0.5, Duration.ofMillis(20), 1);
+        // Slow calls admitted while CLOSED, still running when the breaker trips
+        CircuitBreaker.Permit slowSuccess = breaker.tryAcquire();
+        CircuitBreaker.Permit slowFailure = breaker.tryAcquire();
+        tripOpen(breaker);
+
+        Thread.sleep(40);
+        CircuitBreaker.Permit probe = breaker.tryAcquire();
+        assertNotNull(probe);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+
+        // Their outcomes arrive during HALF_OPEN: neither closes nor reopens the breaker
+        breaker.onSuccess(slowSuccess);
+        breaker.onFailure(slowFailure);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        // ...nor frees a probe slot
+        assertNull(breaker.tryAcquire());
+
+        breaker.onSuccess(probe);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void slidingWindowForgetsOldFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(4, 4, 0.75, Duration.ofMinutes(1), 1);
+
+        for (int i = 0; i < 2; i++) {
+            breaker.onFailure(breaker.tryAcquire());
+        }
+        for (int i = 0; i < 6; i++) {
+            breaker.onSuccess(breaker.tryAcquire());
+        }
+        for (int i = 0; i < 2; i++) {
+            breaker.onFailure(breaker.tryAcquire());
+        }
+        // Window holds S, S, F, F: 50% is below the 75% threshold
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    private static void tripOpen(CircuitBreaker breaker) {
+        while (breaker.state() != CircuitBreaker.State.OPEN) {
+            breaker.onFailure(breaker.tryAcquire());
+        }
+    }
+}
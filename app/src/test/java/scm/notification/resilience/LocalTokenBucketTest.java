@@ -0,0 +1,31 @@
+package scm.notification.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalTokenBucketTest {
+
+    @Test
+    void allowsBurstThenReportsWaitForNextToken() {
+        LocalTokenBucket bucket = new LocalTokenBucket(1, 3);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire());
+        }
+        long waitNanos = bucket.tryAcquire();
+        // One token per second: the next one is at most a second away
+        assertTrue(waitNanos > 0 && waitNanos <= 1_000_000_000L, "wait was " + waitNanos);
+    }
+
+    @Test
+    void refundedTokenCanBeTakenAgain() {
+        LocalTokenBucket bucket = new LocalTokenBucket(0.001, 1);
+
+        assertEquals(0, bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire() > 0);
+        bucket.refund();
+        assertEquals(0, bucket.tryAcquire());
+    }
+}
@@ -0,0 +1,59 @@
+package scm.notification.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CampaignRecipientReaderTest {
+
+    @Test
+    void readsRecipientColumnNamedInHeader() throws IOException {
+        String csv = "name,email\n\"Doe, Jane\",jane@example.com\nBob,\"bob@example.com\"\n\nNo address\n";
+
+        assertEquals(List.of("jane@example.com", "bob@example.com", ""),
+                readAll(csv, CampaignRecipientReader.Format.CSV));
+    }
+
+    @Test
+    void readsFirstColumnWithoutHeader() throws IOException {
+        String csv = "a@example.com,Alice\r\nb@example.com\r\n";
+
+        assertEquals(List.of("a@example.com", "b@example.com"), readAll(csv, CampaignRecipientReader.Format.CSV));
+    }
+
+    @Test
+    void readsNdjsonRecipientField() throws IOException {
+        String ndjson = "{\"recipient\":\"a@example.com\",\"name\":\"Alice\"}\n{\"name\":\"Bob\"}\nnot json\n";
+
+        assertEquals(List.of("a@example.com", "", ""), readAll(ndjson, CampaignRecipientReader.Format.NDJSON));
+    }
+
+    @Test
+    void detectsFormatFromFilenameOrContentType() {
+        assertEquals(CampaignRecipientReader.Format.CSV, CampaignRecipientReader.Format.detect("list.CSV", null));
+        assertEquals(CampaignRecipientReader.Format.NDJSON,
+                CampaignRecipientReader.Format.detect("list", "application/x-ndjson"));
+        assertThrows(IllegalArgumentException.class,
+                () -> CampaignRecipientReader.Format.detect("list.xlsx", "application/octet-stream"));
+    }
+
+    private static List<String> readAll(String content, CampaignRecipientReader.Format format) throws IOException {
+        List<String> recipients = new ArrayList<>();
+        try (CampaignRecipientReader reader = new CampaignRecipientReader(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format, new ObjectMapper())) {
+            String recipient;
+            while ((recipient = reader.next()) != null) {
+                recipients.add(recipient);
+            }
+        }
+        return recipients;
+    }
+}
@@ -0,0 +1,150 @@
+package scm.notification.service;
+
+import scm.notification.audit.AuditLogWriter;
+import scm.notification.entity.Notification;
+import scm.notification.metrics.NotificationMetrics;
+import scm.notification.repository.NotificationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GroupCommitWriterTest {
+
+    private final NotificationRepository repository = mock(NotificationRepository.class);
+    private final ExecutorService callers = Executors.newFixedThreadPool(3);
+    // Sizes of the lists passed to saveAll, one per transaction
+    private final List<Integer> transactions = new ArrayList<>();
+    private GroupCommitWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        writer.stop();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentInsertsShareOneTransaction() throws Exception {
+        savesWith(Set.of(), null);
+        writer = start(3, 1_000_000, 30_000);
+
+        List<Future<UUID>> ids = submit("a", "b", "c");
+
+        Set<UUID> distinct = new HashSet<>(List.of(result(ids.get(0)), result(ids.get(1)), result(ids.get(2))));
+        assertEquals(3, distinct.size());
+        assertEquals(List.of(3), transactions());
+    }
+
+    @Test
+    void failedGroupIsRetriedOneInsertAtATime() throws Exception {
+        savesWith(Set.of("duplicate"), null);
+        writer = start(3, 1_000_000, 30_000);
+
+        List<Future<UUID>> ids = submit("a", "duplicate", "c");
+
+        assertNotNull(result(ids.get(0)));
+        assertNotNull(result(ids.get(2)));
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> ids.get(1).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DataIntegrityViolationException.class, failure.getCause());
+        assertEquals(List.of(3, 1, 1, 1), transactions());
+    }
+
+    @Test
+    void timedOutCallerInsertsDirectlyOrWaitsForItsGroup() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        savesWith(Set.of(), release);
+        writer = start(1, 0, 100);
+
+        // "slow" holds the combiner in its transaction past the commit timeout
+        Future<UUID> slow = submit("slow").get(0);
+        while (transactions().isEmpty()) {
+            Thread.sleep(5);
+        }
+        // Still queued when it times out, so the caller takes it back
+        Future<UUID> queued = submit("queued").get(0);
+        assertNotNull(result(queued));
+        assertEquals(0, writer.pending());
+
+        Thread.sleep(200);
+        release.countDown();
+        // Already in flight: the caller waits for the real outcome instead of failing
+        assertNotNull(result(slow));
+        assertEquals(List.of(1, 1), transactions());
+    }
+
+    private GroupCommitWriter start(int maxBatchSize, long maxWaitMicros, long commitTimeoutMs) {
+        GroupCommitWriter started = new GroupCommitWriter(repository, mock(AuditLogWriter.class),
+                mock(ApplicationEventPublisher.class), mock(NotificationMetrics.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), true, maxBatchSize, maxWaitMicros,
+                100, commitTimeoutMs);
+        started.start();
+        return started;
+    }
+
+    /**
+     * Stubs saveAll to assign IDs, failing any transaction that contains one of
+     * the rejected recipients and blocking one for "slow" until released.
+     */
+    @SuppressWarnings("unchecked")
+    private void savesWith(Set<String> rejected, CountDownLatch release) {
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Notification> notifications = new ArrayList<>((List<Notification>) invocation.getArgument(0));
+            synchronized (transactions) {
+                transactions.add(notifications.size());
+            }
+            Set<String> recipients = notifications.stream().map(Notification::getRecipient)
+                    .collect(Collectors.toSet());
+            if (release != null && recipients.contains("slow")) {
+                release.await();
+            }
+            if (recipients.stream().anyMatch(rejected::contains)) {
+                throw new DataIntegrityViolationException("Duplicate entry");
+            }
+            notifications.forEach(n -> n.setId(UUID.randomUUID()));
+            return notifications;
+        });
+    }
+
+    private List<Future<UUID>> submit(String... recipients) {
+        List<Future<UUID>> ids = new ArrayList<>();
+        for (String recipient : recipients) {
+            Notification notification = Notification.builder().recipient(recipient).build();
+            ids.add(callers.submit(() -> writer.insert(notification)));
+        }
+        return ids;
+    }
+
+    private static UUID result(Future<UUID> id) throws Exception {
+        return id.get(5, TimeUnit.SECONDS);
+    }
+
+    private List<Integer> transactions() {
+        synchronized (transactions) {
+            return List.copyOf(transactions);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package scm.notification.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AttachmentCodecTest {
+
+    @Test
+    void decodesBase64WithEmbeddedWhitespace() throws IOException {
+        byte[] original = new byte[3000];
+        for (int i = 0; i < original.length; i++) {
+            original[i] = (byte) (i * 31);
+        }
+        String mime = Base64.getMimeEncoder().encodeToString(original);
+
+        assertTrue(AttachmentCodec.isBase64(mime));
+        assertArrayEquals(original, readAll(mime));
+    }
+
+    @Test
+    void decodesUnpaddedBase64() throws IOException {
+        assertArrayEquals("AB".getBytes(StandardCharsets.US_ASCII), readAll("QUI"));
+    }
+
+    @Test
+    void fallsBackToPlainTextForNonBase64() throws IOException {
+        String ics = "BEGIN:VCALENDAR\r\nVERSION:2.0\r\nEND:VCALENDAR";
+
+        assertFalse(AttachmentCodec.isBase64(ics));
+        assertArrayEquals(ics.getBytes(StandardCharsets.UTF_8), readAll(ics));
+    }
+
+    @Test
+    void rejectsMalformedPadding() {
+        assertFalse(AttachmentCodec.isBase64("QQ="));
+        assertFalse(AttachmentCodec.isBase64("QUJD="));
+        assertFalse(AttachmentCodec.isBase64("QQ==QQ=="));
+        assertFalse(AttachmentCodec.isBase64("Q"));
+    }
+
+    private static byte[] readAll(String content) throws IOException {
+        try (InputStream in = AttachmentCodec.open(content)) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+plugins {
+    java
+    application
+    alias(libs.plugins.spring.boot)
+    alias(libs.plugins.spring.dependency.management)
+}
+
+java {
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(libs.versions.java.get())
+    }
+}
+
+repositories {
+    mavenCentral()
+}
+
+// Offline end-to-end load test: the service on H2 against an embedded fake SMTP server.
+// ./gradlew :loadtest:run --args="--rate=200 --duration-seconds=60 --smtp-latency-ms=20"
+dependencies {
+    implementation(project(":app"))
+    implementation(libs.spring.boot.starter.web)
+    implementation(libs.spring.boot.starter.data.jpa)
+    runtimeOnly(libs.h2)
+}
+
+application {
+    mainClass = "scm.notification.loadtest.LoadTestMain"
+}
+
+tasks.named<JavaExec>("run") {
+    workingDir = layout.buildDirectory.dir("loadtest").get().asFile.apply { mkdirs() }
+    maxHeapSize = "2g"
+}
@@ -0,0 +1,161 @@
+package scm.notification.loadtest;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal SMTP sink for load tests.
+ *
+ * Speaks just enough plain SMTP (no STARTTLS, no AUTH) for JavaMail, accepts
+ * every message and discards it. Each session runs on a virtual thread. After
+ * the DATA terminator the reply is delayed by the configured latency, and a
+ * share of messages is answered with a 451 (transient) or 550 (permanent)
+ * reply to exercise the retry and failure paths.
+ */
+public final class FakeSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor();
+    private final Duration latency;
+    private final double transientErrorRate;
+    private final double permanentErrorRate;
+
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong transientErrors = new AtomicLong();
+    private final AtomicLong permanentErrors = new AtomicLong();
+    private final AtomicLong lastAcceptedNanos = new AtomicLong();
+
+    public FakeSmtpServer(Duration latency, double transientErrorRate, double permanentErrorRate)
+            throws IOException {
+        this.serverSocket = new ServerSocket(0, 512, InetAddress.getLoopbackAddress());
+        this.latency = latency;
+        this.transientErrorRate = transientErrorRate;
+        this.permanentErrorRate = permanentErrorRate;
+        Thread.ofPlatform().daemon().name("fake-smtp-acceptor").start(this::acceptLoop);
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    /** Connections opened by clients, i.e. SMTP handshakes performed. */
+    public long connections() {
+        return connections.get();
+    }
+
+    public long accepted() {
+        return accepted.get();
+    }
+
+    public long transientErrors() {
+        return transientErrors.get();
+    }
+
+    public long permanentErrors() {
+        return permanentErrors.get();
+    }
+
+    /** System.nanoTime() of the last accepted message, 0 if none. */
+    public long lastAcceptedNanos() {
+        return lastAcceptedNanos.get();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                sessions.submit(() -> session(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("[FAKE SMTP] Accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void session(Socket socket) {
+        try (socket;
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+                BufferedWriter out = new BufferedWriter(
+                        new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.ISO_8859_1))) {
+            reply(out, "220 localhost fake ESMTP ready");
+            boolean inData = false;
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (inData) {
+                    if (line.equals(".")) {
+                        inData = false;
+                        reply(out, endOfData());
+                    }
+                    continue;
+                }
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase(Locale.ROOT) : line;
+                switch (command) {
+                    case "EHLO" -> reply(out, "250-localhost\r\n250 8BITMIME");
+                    case "HELO", "MAIL", "RCPT", "RSET", "NOOP" -> reply(out, "250 OK");
+                    case "DATA" -> {
+                        inData = true;
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            // Client went away; nothing to clean up
+        }
+    }
+
+    private String endOfData() {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < permanentErrorRate) {
+            permanentErrors.incrementAndGet();
+            return "550 5.7.1 Injected permanent failure";
+        }
+        if (roll < permanentErrorRate + transientErrorRate) {
+            transientErrors.incrementAndGet();
+            return "451 4.3.0 Injected transient failure";
+        }
+        accepted.incrementAndGet();
+        lastAcceptedNanos.set(System.nanoTime());
+        return "250 OK queued";
+    }
+
+    private static void reply(BufferedWriter out, String reply) throws IOException {
+        out.write(reply);
+        out.write("\r\n");
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        sessions.shutdownNow();
+    }
+}
@@ -0,0 +1,125 @@
+package scm.notification.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for {@code POST /api/notification/trigger}.
+ *
+ * Requests are started on a fixed schedule at the target rate, each on its own
+ * virtual thread, whether or not earlier requests have completed. A slow
+ * service therefore shows up as growing latency rather than as a silently
+ * lower offered rate (no coordinated omission).
+ */
+final class LoadGenerator {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final URI triggerUri;
+    private final LoadTestOptions options;
+    private final HttpClient client;
+    private final String content;
+
+    LoadGenerator(URI triggerUri, LoadTestOptions options, ExecutorService clientExecutor) {
+        this.triggerUri = triggerUri;
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(clientExecutor)
+                .build();
+        this.content = "x".repeat(Math.max(1, options.contentBytes()));
+    }
+
+    /**
+     * Offers {@code rate * duration} triggers and waits for every response.
+     */
+    Result run() {
+        long total = options.totalRequests();
+        long intervalNanos = 1_000_000_000L / options.rate();
+        AtomicLongArray responseNanos = new AtomicLongArray(Math.toIntExact(total));
+        Map<UUID, Instant> triggeredAt = new ConcurrentHashMap<>((int) Math.min(total, 1 << 20));
+        AtomicLong accepted = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+
+        long start = System.nanoTime();
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < total; i++) {
+                long wait = start + i * intervalNanos - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                int seq = i;
+                requests.submit(() -> {
+                    Instant sentAt = Instant.now();
+                    long t0 = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = client.send(request(seq),
+                                HttpResponse.BodyHandlers.ofString());
+                        responseNanos.set(seq, System.nanoTime() - t0);
+                        if (response.statusCode() / 100 == 2) {
+                            triggeredAt.put(UUID.fromString(id(response.body())), sentAt);
+                            accepted.incrementAndGet();
+                        } else {
+                            rejected.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        return new Result(start, elapsedNanos, total, accepted.get(), rejected.get(), errors.get(),
+                Percentiles.ofNanos(responseNanos), triggeredAt);
+    }
+
+    private HttpRequest request(int seq) throws IOException {
+        String body = MAPPER.writeValueAsString(Map.of(
+                "channel", "EMAIL",
+                "recipient", "user-" + seq + "@loadtest.local",
+                "subject", "Load test " + seq,
+                "content", content,
+                "priority", options.priority().name()));
+        return HttpRequest.newBuilder(triggerUri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static String id(String responseBody) throws IOException {
+        JsonNode json = MAPPER.readTree(responseBody);
+        return json.get("id").asText();
+    }
+
+    /**
+     * @param startNanos     System.nanoTime() when the first request was due
+     * @param elapsedNanos   until the last response arrived
+     * @param responseTimes  trigger API response times of completed requests
+     * @param triggeredAt    accepted notification IDs with the time they were triggered
+     */
+    record Result(long startNanos, long elapsedNanos, long requests, long accepted, long rejected, long errors,
+            Percentiles responseTimes, Map<UUID, Instant> triggeredAt) {
+    }
+}
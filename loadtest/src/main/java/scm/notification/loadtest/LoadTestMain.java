@@ -0,0 +1,128 @@
+package scm.notification.loadtest;
+
+import scm.notification.NotificationApplication;
+import scm.notification.enums.NotificationStatus;
+import scm.notification.repository.NotificationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.LongStream;
+
+/**
+ * End-to-end load test of the notification service.
+ *
+ * Starts an embedded fake SMTP server and the service itself (H2 in-memory
+ * database, profile {@code loadtest}), offers triggers at a fixed rate from a
+ * virtual-thread load generator, waits for the backlog to drain and reports
+ * accepted req/s, delivered msg/s and trigger-to-SENT latency percentiles.
+ *
+ * <pre>
+ * ./gradlew :loadtest:run --args="--rate=200 --duration-seconds=60 --smtp-latency-ms=20"
+ * </pre>
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        try (FakeSmtpServer smtp = new FakeSmtpServer(Duration.ofMillis(options.smtpLatencyMs()),
+                options.smtpTransientErrorRate(), options.smtpPermanentErrorRate());
+                ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+                ConfigurableApplicationContext app = startService(options, smtp.port())) {
+
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            URI triggerUri = URI.create("http://localhost:" + port + "/api/notification/trigger");
+            System.out.printf("[LOAD TEST] Offering %d req/s for %d s to %s%n", options.rate(),
+                    options.durationSeconds(), triggerUri);
+
+            LoadGenerator.Result load = new LoadGenerator(triggerUri, options, clientExecutor).run();
+            System.out.printf("[LOAD TEST] Load finished, %d accepted; waiting for delivery%n", load.accepted());
+
+            if (!awaitDrain(app.getBean(NotificationRepository.class), options.drainTimeoutSeconds())) {
+                System.out.printf("[LOAD TEST] Backlog not drained after %d s%n", options.drainTimeoutSeconds());
+            }
+
+            LoadTestReport report = LoadTestReport.from(options, load, smtp,
+                    outcome(app.getBean(EntityManagerFactory.class), load.triggeredAt()));
+            report.print(System.out);
+            if (options.output() != null) {
+                report.write(options.output());
+                System.out.println("[LOAD TEST] Report written to " + options.output().toAbsolutePath());
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startService(LoadTestOptions options, int smtpPort) {
+        return new SpringApplicationBuilder(NotificationApplication.class)
+                .profiles("loadtest")
+                .properties(Map.of(
+                        "spring.mail.port", smtpPort,
+                        "notification.email.pool.enabled", options.smtpPool()))
+                .run(options.applicationArgs().toArray(String[]::new));
+    }
+
+    /**
+     * Waits until no notification is PENDING or IN_PROGRESS any more.
+     */
+    private static boolean awaitDrain(NotificationRepository repository, int timeoutSeconds)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(timeoutSeconds).toNanos();
+        while (System.nanoTime() < deadline) {
+            long open = repository.countByStatus(NotificationStatus.PENDING)
+                    + repository.countByStatus(NotificationStatus.IN_PROGRESS);
+            if (open == 0) {
+                return true;
+            }
+            Thread.sleep(500);
+        }
+        return false;
+    }
+
+    private static LoadTestReport.DeliveryOutcome outcome(EntityManagerFactory entityManagerFactory,
+            Map<UUID, Instant> triggeredAt) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        List<Object[]> rows;
+        try {
+            rows = entityManager
+                    .createQuery("SELECT n.id, n.status, n.updatedAt FROM Notification n", Object[].class)
+                    .getResultList();
+        } finally {
+            entityManager.close();
+        }
+
+        long sent = 0;
+        long failed = 0;
+        LongStream.Builder latencies = LongStream.builder();
+        for (Object[] row : rows) {
+            NotificationStatus status = (NotificationStatus) row[1];
+            if (status == NotificationStatus.FAILED) {
+                failed++;
+            } else if (status == NotificationStatus.SENT) {
+                sent++;
+                Instant triggered = triggeredAt.get((UUID) row[0]);
+                if (triggered != null) {
+                    Instant sentAt = ((LocalDateTime) row[2]).atZone(ZoneId.systemDefault()).toInstant();
+                    latencies.add(Duration.between(triggered, sentAt).toNanos());
+                }
+            }
+        }
+        return new LoadTestReport.DeliveryOutcome(sent, failed, rows.size() - sent - failed,
+                Percentiles.ofNanos(latencies.build()));
+    }
+}
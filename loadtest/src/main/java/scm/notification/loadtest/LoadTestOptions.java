@@ -0,0 +1,81 @@
+package scm.notification.loadtest;
+
+import scm.notification.enums.NotificationPriority;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load test parameters, parsed from {@code --name=value} arguments.
+ *
+ * Arguments that are not load test options (e.g.
+ * {@code --notification.delivery.virtual-threads=true}) are passed on to the
+ * application unchanged, so any service setting can be varied per run.
+ *
+ * @param rate                    triggers per second offered to the API
+ * @param durationSeconds         how long load is generated
+ * @param drainTimeoutSeconds     how long to wait for the backlog to reach a final state
+ * @param priority                priority of the generated notifications
+ * @param contentBytes            size of the generated message content
+ * @param smtpLatencyMs           delay before the fake SMTP server answers each DATA
+ * @param smtpTransientErrorRate  share of messages answered with 451
+ * @param smtpPermanentErrorRate  share of messages answered with 550
+ * @param smtpPool                whether EmailService uses the pooled SMTP transports
+ * @param output                  optional JSON file the report is written to
+ * @param applicationArgs         remaining arguments, forwarded to the application
+ */
+public record LoadTestOptions(
+        int rate,
+        int durationSeconds,
+        int drainTimeoutSeconds,
+        NotificationPriority priority,
+        int contentBytes,
+        long smtpLatencyMs,
+        double smtpTransientErrorRate,
+        double smtpPermanentErrorRate,
+        boolean smtpPool,
+        Path output,
+        List<String> applicationArgs) {
+
+    private static final List<String> KNOWN = List.of("rate", "duration-seconds", "drain-timeout-seconds",
+            "priority", "content-bytes", "smtp-latency-ms", "smtp-transient-error-rate",
+            "smtp-permanent-error-rate", "smtp-pool", "output");
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String name = arg.startsWith("--") && eq > 2 ? arg.substring(2, eq) : null;
+            if (name != null && KNOWN.contains(name)) {
+                options.put(name, arg.substring(eq + 1));
+            } else {
+                applicationArgs.add(arg);
+            }
+        }
+
+        LoadTestOptions parsed = new LoadTestOptions(
+                Integer.parseInt(options.getOrDefault("rate", "100")),
+                Integer.parseInt(options.getOrDefault("duration-seconds", "30")),
+                Integer.parseInt(options.getOrDefault("drain-timeout-seconds", "120")),
+                NotificationPriority.valueOf(options.getOrDefault("priority", "NORMAL")),
+                Integer.parseInt(options.getOrDefault("content-bytes", "512")),
+                Long.parseLong(options.getOrDefault("smtp-latency-ms", "0")),
+                Double.parseDouble(options.getOrDefault("smtp-transient-error-rate", "0")),
+                Double.parseDouble(options.getOrDefault("smtp-permanent-error-rate", "0")),
+                Boolean.parseBoolean(options.getOrDefault("smtp-pool", "true")),
+                options.containsKey("output") ? Path.of(options.get("output")) : null,
+                List.copyOf(applicationArgs));
+        if (parsed.rate <= 0 || parsed.durationSeconds <= 0) {
+            throw new IllegalArgumentException("--rate and --duration-seconds must be positive");
+        }
+        return parsed;
+    }
+
+    public long totalRequests() {
+        return (long) rate * durationSeconds;
+    }
+}
@@ -0,0 +1,104 @@
+package scm.notification.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Result of one load test run. Printed as a summary and optionally written as
+ * JSON, so runs can be kept as baselines and compared.
+ */
+public record LoadTestReport(
+        int rate,
+        int durationSeconds,
+        String priority,
+        long smtpLatencyMs,
+        double smtpTransientErrorRate,
+        double smtpPermanentErrorRate,
+        boolean smtpPool,
+        long requests,
+        long accepted,
+        long rejected,
+        long errors,
+        double acceptedPerSecond,
+        long delivered,
+        double deliveredPerSecond,
+        long sent,
+        long failed,
+        long unfinished,
+        long smtpConnections,
+        long smtpTransientErrors,
+        long smtpPermanentErrors,
+        Percentiles triggerResponse,
+        Percentiles triggerToSent) {
+
+    static LoadTestReport from(LoadTestOptions options, LoadGenerator.Result load, FakeSmtpServer smtp,
+            DeliveryOutcome outcome) {
+        double loadSeconds = load.elapsedNanos() / 1e9;
+        long lastDelivery = smtp.lastAcceptedNanos();
+        double deliverySeconds = lastDelivery > 0 ? (lastDelivery - load.startNanos()) / 1e9 : 0;
+
+        return new LoadTestReport(
+                options.rate(),
+                options.durationSeconds(),
+                options.priority().name(),
+                options.smtpLatencyMs(),
+                options.smtpTransientErrorRate(),
+                options.smtpPermanentErrorRate(),
+                options.smtpPool(),
+                load.requests(),
+                load.accepted(),
+                load.rejected(),
+                load.errors(),
+                round(load.accepted() / loadSeconds),
+                smtp.accepted(),
+                deliverySeconds > 0 ? round(smtp.accepted() / deliverySeconds) : 0,
+                outcome.sent(),
+                outcome.failed(),
+                outcome.unfinished(),
+                smtp.connections(),
+                smtp.transientErrors(),
+                smtp.permanentErrors(),
+                load.responseTimes(),
+                outcome.triggerToSent());
+    }
+
+    void print(PrintStream out) {
+        out.println();
+        out.println("==================== Notification load test ====================");
+        out.printf("Offered            %d req/s for %d s (%s, SMTP latency %d ms, pool %s)%n",
+                rate, durationSeconds, priority, smtpLatencyMs, smtpPool ? "on" : "off");
+        out.printf("Injected errors    %.2f%% transient, %.2f%% permanent%n",
+                smtpTransientErrorRate * 100, smtpPermanentErrorRate * 100);
+        out.printf("Requests           %d (accepted %d, rejected %d, errors %d)%n",
+                requests, accepted, rejected, errors);
+        out.printf("Accepted           %.1f req/s%n", acceptedPerSecond);
+        out.printf("Delivered          %d messages, %.1f msg/s over %d SMTP connections%n",
+                delivered, deliveredPerSecond, smtpConnections);
+        out.printf("Final status       SENT %d, FAILED %d, unfinished %d%n", sent, failed, unfinished);
+        out.printf("Trigger response   %s%n", triggerResponse);
+        out.printf("Trigger -> SENT    %s%n", triggerToSent);
+        out.println("================================================================");
+    }
+
+    void write(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), this);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    /**
+     * Final state of the accepted notifications, read from the database after the drain.
+     */
+    record DeliveryOutcome(long sent, long failed, long unfinished, Percentiles triggerToSent) {
+    }
+}
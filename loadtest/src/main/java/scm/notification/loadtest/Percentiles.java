@@ -0,0 +1,39 @@
+package scm.notification.loadtest;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.LongStream;
+
+/**
+ * Latency distribution summary in milliseconds (nearest-rank percentiles).
+ */
+public record Percentiles(long count, double p50, double p90, double p95, double p99, double p999, double max) {
+
+    static Percentiles ofNanos(AtomicLongArray nanos) {
+        // Unset slots belong to requests that never completed
+        return ofNanos(LongStream.range(0, nanos.length()).map(i -> nanos.get((int) i)).filter(n -> n > 0));
+    }
+
+    static Percentiles ofNanos(LongStream nanos) {
+        long[] sorted = nanos.sorted().toArray();
+        if (sorted.length == 0) {
+            return new Percentiles(0, 0, 0, 0, 0, 0, 0);
+        }
+        return new Percentiles(sorted.length, rank(sorted, 0.50), rank(sorted, 0.90), rank(sorted, 0.95),
+                rank(sorted, 0.99), rank(sorted, 0.999), millis(sorted[sorted.length - 1]));
+    }
+
+    private static double rank(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return millis(sorted[Math.max(0, index)]);
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("p50 %.2f  p90 %.2f  p95 %.2f  p99 %.2f  p99.9 %.2f  max %.2f ms (n=%d)",
+                p50, p90, p95, p99, p999, max, count);
+    }
+}
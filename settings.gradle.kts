@@ -22,4 +22,5 @@ dependencyResolutionManagement {
     }
 }
 include("app")
+include("loadtest")
 rootProject.name = "notification-service"
\ No newline at end of file